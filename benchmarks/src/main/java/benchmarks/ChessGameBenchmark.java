@@ -0,0 +1,90 @@
+package benchmarks;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rule checks on ChessGame: legal move generation, making a move, and the
+ * check / checkmate tests run after every move.
+ * <p>
+ * A game caches the legal moves and status of the side to move, so benchmarks
+ * of them load a fresh copy of the position on every invocation; otherwise
+ * they would only measure a cache lookup. Subtract {@link #loadOnly} to get
+ * the cost of the generation itself.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChessGameBenchmark {
+    @Param({"opening", "italian", "queensGambit", "sicilian", "dragon", "endgame"})
+    public String position;
+
+    private ChessGame game;
+    private List<ChessPosition> ownPieces;
+    private ChessMove firstMove;
+
+    @Setup(Level.Trial)
+    public void loadPosition() {
+        game = Positions.load(position);
+        ownPieces = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = game.getBoard().getPiece(ChessPosition.of(row, col));
+                if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                    ownPieces.add(ChessPosition.of(row, col));
+                }
+            }
+        }
+        for (ChessPosition start : ownPieces) {
+            Collection<ChessMove> moves = game.validMoves(start);
+            if (!moves.isEmpty()) {
+                firstMove = moves.iterator().next();
+                break;
+            }
+        }
+    }
+
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        ChessGame fresh = Positions.load(position);
+        for (ChessPosition start : ownPieces) {
+            blackhole.consume(fresh.validMoves(start));
+        }
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return game.isInCheck(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        ChessGame fresh = Positions.load(position);
+        return fresh.isInCheckmate(fresh.getTeamTurn());
+    }
+
+    /**
+     * Each invocation gets a fresh copy of the position, so this includes
+     * parsing it; compare against {@link #loadOnly} to isolate makeMove.
+     */
+    @Benchmark
+    public ChessGame makeMove() throws InvalidMoveException {
+        ChessGame fresh = Positions.load(position);
+        fresh.makeMove(firstMove);
+        return fresh;
+    }
+
+    @Benchmark
+    public ChessGame loadOnly() {
+        return Positions.load(position);
+    }
+}
@@ -0,0 +1,71 @@
+package benchmarks;
+
+import chess.*;
+import chess.calculators.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pseudo-legal move generation for each PieceMovesCalculator, run over every
+ * piece of the calculator's type in a position
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PieceMovesBenchmark {
+    @Param({"italian", "queensGambit", "sicilian", "dragon"})
+    public String position;
+
+    @Param({"PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING"})
+    public ChessPiece.PieceType type;
+
+    private ChessBoard board;
+    private PieceMovesCalculator calculator;
+    private List<ChessPosition> squares;
+    private final MoveBuffer buffer = new MoveBuffer();
+
+    @Setup(Level.Trial)
+    public void loadPosition() {
+        board = Positions.load(position).getBoard();
+        calculator = switch (type) {
+            case PAWN -> new PawnMovesCalculator();
+            case KNIGHT -> new KnightMovesCalculator();
+            case BISHOP -> new BishopMovesCalculator();
+            case ROOK -> new RookMovesCalculator();
+            case QUEEN -> new QueenMovesCalculator();
+            case KING -> new KingMovesCalculator();
+        };
+        squares = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(ChessPosition.of(row, col));
+                if (piece != null && piece.getPieceType() == type) {
+                    squares.add(ChessPosition.of(row, col));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void pieceMoves(Blackhole blackhole) {
+        for (ChessPosition square : squares) {
+            blackhole.consume(calculator.pieceMoves(board, square));
+        }
+    }
+
+    @Benchmark
+    public int generateMoves() {
+        buffer.clear();
+        for (ChessPosition square : squares) {
+            calculator.generateMoves(board, Bitboards.square(square), buffer);
+        }
+        return buffer.size();
+    }
+}
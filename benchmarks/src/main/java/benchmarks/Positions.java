@@ -0,0 +1,32 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.Fen;
+
+import java.util.Map;
+
+/**
+ * Representative positions shared by the benchmarks, keyed by the names used
+ * in each benchmark's {@code @Param} list
+ */
+final class Positions {
+    static final Map<String, String> FENS = Map.of(
+            "opening", Fen.STARTING_POSITION,
+            "italian", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            "queensGambit", "r1bq1rk1/pp1nbppp/4pn2/2pp2B1/2PP4/2N1PN2/PP3PPP/R2QKB1R w - - 0 8",
+            "sicilian", "r1b1kb1r/1pqp1ppp/p1n1pn2/8/3NP3/2N1B3/PPP1BPPP/R2QK2R w - - 0 8",
+            "dragon", "2rq1rk1/pp1bppbp/3p1np1/8/3NP3/1BN1BP2/PPPQ2PP/2KR3R b - - 0 12",
+            "endgame", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"
+    );
+
+    private Positions() {
+    }
+
+    static ChessGame load(String name) {
+        String fen = FENS.get(name);
+        if (fen == null) {
+            throw new IllegalArgumentException("Unknown position: " + name);
+        }
+        return Fen.parse(fen);
+    }
+}
@@ -0,0 +1,40 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.Searcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-depth engine searches, the cost of one computer move
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+    @Param({"opening", "sicilian", "endgame"})
+    public String position;
+
+    @Param({"5"})
+    public int depth;
+
+    private ChessGame game;
+    private Searcher searcher;
+
+    @Setup(Level.Trial)
+    public void loadPosition() {
+        game = Positions.load(position);
+        searcher = new Searcher();
+    }
+
+    @Benchmark
+    public SearchResult search() {
+        return searcher.search(game, SearchLimits.depth(depth));
+    }
+}
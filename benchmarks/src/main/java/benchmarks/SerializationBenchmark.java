@@ -0,0 +1,58 @@
+package benchmarks;
+
+import adapters.ChessBoardAdapter;
+import adapters.ChessGameAdapter;
+import adapters.ChessPieceAdapter;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gson round trips through the ChessGame / ChessBoard / ChessPiece type
+ * adapters, the path every stored game and LOAD_GAME message takes
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+    @Param({"opening", "italian", "endgame"})
+    public String position;
+
+    private Gson gson;
+    private ChessGame game;
+    private String json;
+
+    @Setup(Level.Trial)
+    public void loadPosition() {
+        gson = new GsonBuilder()
+                .registerTypeAdapter(ChessGame.class, new ChessGameAdapter())
+                .registerTypeAdapter(ChessBoard.class, new ChessBoardAdapter())
+                .registerTypeAdapter(ChessPiece.class, new ChessPieceAdapter())
+                .create();
+        game = Positions.load(position);
+        json = gson.toJson(game);
+    }
+
+    @Benchmark
+    public String serializeGame() {
+        return gson.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame deserializeGame() {
+        return gson.fromJson(json, ChessGame.class);
+    }
+
+    @Benchmark
+    public ChessGame roundTrip() {
+        return gson.fromJson(gson.toJson(game), ChessGame.class);
+    }
+}
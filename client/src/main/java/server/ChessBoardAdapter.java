@@ -15,7 +15,7 @@ public class ChessBoardAdapter implements JsonSerializer<ChessBoard>, JsonDeseri
         for (int row = 1; row <= 8; row++) {
             JsonArray rowArray = new JsonArray();
             for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
+                ChessPosition position = ChessPosition.of(row, col);
                 ChessPiece piece = board.getPiece(position);
                 rowArray.add(context.serialize(piece));
             }
@@ -39,7 +39,7 @@ public class ChessBoardAdapter implements JsonSerializer<ChessBoard>, JsonDeseri
                 if (!pieceElement.isJsonNull()) {
                     ChessPiece piece = context.deserialize(pieceElement, ChessPiece.class);
                     if (piece != null) {
-                        board.addPiece(new ChessPosition(row + 1, col + 1), piece);
+                        board.addPiece(ChessPosition.of(row + 1, col + 1), piece);
                     }
                 }
             }
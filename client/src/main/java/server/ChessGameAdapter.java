@@ -2,6 +2,7 @@ package server;
 
 import chess.ChessGame;
 import chess.ChessBoard;
+import chess.GameCodec;
 import com.google.gson.*;
 import java.lang.reflect.Type;
 
@@ -17,6 +18,14 @@ public class ChessGameAdapter implements JsonSerializer<ChessGame>, JsonDeserial
 
     @Override
     public ChessGame deserialize(JsonElement json, Type type, JsonDeserializationContext context) throws JsonParseException {
+        // Compact text form, see GameCodec
+        if (json.isJsonPrimitive()) {
+            try {
+                return GameCodec.fromText(json.getAsString());
+            } catch (IllegalArgumentException e) {
+                throw new JsonParseException("Invalid game: " + e.getMessage(), e);
+            }
+        }
         JsonObject jsonObject = json.getAsJsonObject();
         ChessGame game = new ChessGame();
         
@@ -46,6 +46,6 @@ public class ChessPieceAdapter implements JsonSerializer<ChessPiece>, JsonDeseri
             return null;
         }
         
-        return new ChessPiece(color, pieceType);
+        return ChessPiece.of(color, pieceType);
     }
 } 
\ No newline at end of file
@@ -6,6 +6,7 @@ import model.AuthData;
 import model.UserData;
 import model.RegisterResult;
 import model.GameData;
+import model.GameSummary;
 import chess.ChessGame;
 import chess.ChessPiece;
 import chess.ChessBoard;
@@ -17,6 +18,7 @@ import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.List;
 
 public class ServerFacade {
@@ -81,12 +83,19 @@ public class ServerFacade {
         return result.gameID();
     }
 
-    public List<GameData> listGames(String authToken) throws ResponseException {
-        var path = "/game";
-        // The response body is a JSON object with a 'games' field containing an array of games
-        record ListGamesResult(List<GameData> games) {}
-        var result = this.makeRequest("GET", path, null, ListGamesResult.class, authToken);
-        return result.games();
+    public List<GameSummary> listGames(String authToken) throws ResponseException {
+        // The response body is a JSON object with a 'games' field containing a page of games, and a
+        // 'nextCursor' field to ask for the next page with when there are more
+        record ListGamesResult(List<GameSummary> games, Integer nextCursor) {}
+        var games = new ArrayList<GameSummary>();
+        Integer cursor = null;
+        do {
+            var path = cursor == null ? "/game" : "/game?after=" + cursor;
+            var result = this.makeRequest("GET", path, null, ListGamesResult.class, authToken);
+            games.addAll(result.games());
+            cursor = result.nextCursor();
+        } while (cursor != null);
+        return games;
     }
 
     public void joinGame(String authToken, int gameId, ChessGame.TeamColor playerColor) throws ResponseException {
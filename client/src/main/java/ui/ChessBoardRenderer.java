@@ -1,11 +1,10 @@
 package ui;
 
+import chess.Bitboards;
 import chess.ChessBoard;
 import chess.ChessPiece;
 import chess.ChessGame;
 import chess.ChessPosition;
-import java.util.Set;
-import java.util.HashSet;
 
 public class ChessBoardRenderer {
     public enum Perspective {
@@ -21,14 +20,15 @@ public class ChessBoardRenderer {
         }
     }
 
-    private static Set<ChessPosition> highlightedSquares = new HashSet<>();
+    // Bitboard of highlighted squares, see Bitboards for square numbering
+    private static long highlightedSquares;
 
-    public static void setHighlightedSquares(Set<ChessPosition> squares) {
+    public static void setHighlightedSquares(long squares) {
         highlightedSquares = squares;
     }
 
     public static void clearHighlights() {
-        highlightedSquares.clear();
+        highlightedSquares = 0L;
     }
 
     public static void render(ChessBoard board, String perspectiveStr) {
@@ -46,8 +46,8 @@ public class ChessBoardRenderer {
             System.out.print(" " + row + " ");
             for (int c = 0; c < 8; c++) {
                 int col = whiteBottom ? c + 1 : 8 - c;
-                ChessPosition pos = new ChessPosition(row, col);
-                boolean isHighlighted = highlightedSquares.contains(pos);
+                ChessPosition pos = ChessPosition.of(row, col);
+                boolean isHighlighted = (highlightedSquares & Bitboards.bit(Bitboards.square(row, col))) != 0;
                 printSquare(board, pos, (r + c) % 2 == 0, isHighlighted);
             }
             System.out.println(EscapeSequences.RESET_BG_COLOR + EscapeSequences.RESET_TEXT_COLOR);
@@ -6,9 +6,9 @@ import chess.ChessPosition;
 import chess.ChessPiece;
 import chess.ChessGame;
 import java.io.IOException;
-import java.util.Set;
-import java.util.HashSet;
+import chess.Bitboards;
 import java.util.Collection;
+import java.util.List;
 
 public class GameplayUI {
     private final Scanner scanner;
@@ -225,7 +225,7 @@ public class GameplayUI {
             }
 
             // Check if the move is valid before sending to server
-            Collection<ChessMove> validMoves = currentGame.validMoves(start);
+            Collection<ChessMove> validMoves = legalMovesFrom(start);
             ChessMove attemptedMove = new ChessMove(start, end, null);
             
             if (!validMoves.contains(attemptedMove)) {
@@ -309,23 +309,10 @@ public class GameplayUI {
             return;
         }
 
-        // Get all legal moves for the piece
-        Set<ChessPosition> legalMoves = new HashSet<>();
-        legalMoves.add(pos); // Add the piece's current position
-
-        // Add all possible moves for this piece type
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition endPos = new ChessPosition(row, col);
-                ChessMove move = new ChessMove(pos, endPos, null);
-                try {
-                    if (currentBoard.getPiece(pos).pieceMoves(currentBoard, pos).contains(move)) {
-                        legalMoves.add(endPos);
-                    }
-                } catch (Exception e) {
-                    // Skip invalid moves
-                }
-            }
+        // Highlight the piece and every square it can legally move to
+        long legalMoves = Bitboards.bit(Bitboards.square(pos));
+        for (ChessMove move : legalMovesFrom(pos)) {
+            legalMoves |= Bitboards.bit(Bitboards.square(move.getEndPosition()));
         }
 
         // Highlight the moves and redraw the board
@@ -336,6 +323,25 @@ public class GameplayUI {
         ChessBoardRenderer.clearHighlights();
     }
 
+    /**
+     * Gets the legal moves of the piece on a square. Pieces of the team to move
+     * read the game's cached move map, which is shared by highlighting and move
+     * validation until the next update arrives.
+     * @param pos The position of the piece
+     * @return The piece's legal moves, empty if there are none or no game is loaded
+     */
+    private Collection<ChessMove> legalMovesFrom(ChessPosition pos) {
+        if (currentGame == null) {
+            return List.of();
+        }
+        ChessPiece piece = currentGame.getBoard().getPiece(pos);
+        if (piece != null && piece.getTeamColor() == currentGame.getTeamTurn()) {
+            return currentGame.allValidMoves().getOrDefault(pos, List.of());
+        }
+        Collection<ChessMove> moves = currentGame.validMoves(pos);
+        return moves == null ? List.of() : moves;
+    }
+
     /**
      * Parses a chess square string (e.g., "e2") into a ChessPosition.
      * @param square The square string to parse (e.g., "e2")
@@ -4,7 +4,7 @@ import chess.ChessBoard;
 import server.ResponseException;
 import server.ServerFacade;
 import server.WebsocketCommunicator;
-import model.GameData;
+import model.GameSummary;
 import chess.ChessGame;
 import java.util.Scanner;
 import java.util.List;
@@ -107,7 +107,7 @@ public class PostloginUI {
             } else {
                 System.out.println("Available games:");
                 for (int i = 0; i < games.size(); i++) {
-                    GameData game = games.get(i);
+                    GameSummary game = games.get(i);
                     gameIds.add(game.gameID()); // Store the game ID
                     
                     // Display game info with list number
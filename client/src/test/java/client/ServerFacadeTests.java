@@ -1,7 +1,7 @@
 package client;
 
 import model.AuthData;
-import model.GameData;
+import model.GameSummary;
 import chess.ChessGame;
 import org.junit.jupiter.api.*;
 import server.ResponseException;
@@ -191,7 +191,7 @@ public class ServerFacadeTests {
         assertFalse(games.isEmpty(), "Games list should not be empty");
         assertEquals(1, games.size(), "Should have exactly one game");
         
-        GameData game = games.getFirst();
+        GameSummary game = games.getFirst();
         assertEquals(gameName, game.gameName(), "Game name should match");
         assertEquals(gameId, game.gameID(), "Game ID should match");
         assertNull(game.whiteUsername(), "White username should be null for new game");
@@ -229,7 +229,7 @@ public class ServerFacadeTests {
 
         // Verify each game
         for (int i = 0; i < gameNames.length; i++) {
-            GameData game = games.get(i);
+            GameSummary game = games.get(i);
             assertEquals(gameNames[i], game.gameName(), "Game name should match");
             assertNull(game.whiteUsername(), "White username should be null for new game");
             assertNull(game.blackUsername(), "Black username should be null for new game");
@@ -248,7 +248,7 @@ public class ServerFacadeTests {
 
         // Verify the game state
         var games = serverFacade.listGames(authToken);
-        GameData game = games.getFirst();
+        GameSummary game = games.getFirst();
         assertEquals(TEST_USERNAME, game.whiteUsername(), "White username should be set");
         assertNull(game.blackUsername(), "Black username should still be null");
     }
@@ -271,7 +271,7 @@ public class ServerFacadeTests {
 
         // Verify the game state
         var games = serverFacade.listGames(authToken);
-        GameData game = games.getFirst();
+        GameSummary game = games.getFirst();
         assertEquals(TEST_USERNAME, game.whiteUsername(), "White username should be set");
         assertEquals(secondUser, game.blackUsername(), "Black username should be set");
     }
@@ -325,7 +325,7 @@ public class ServerFacadeTests {
 
         // Verify the game state (should be unchanged)
         var games = serverFacade.listGames(authToken);
-        GameData game = games.getFirst();
+        GameSummary game = games.getFirst();
         assertNull(game.whiteUsername(), "White username should still be null");
         assertNull(game.blackUsername(), "Black username should still be null");
     }
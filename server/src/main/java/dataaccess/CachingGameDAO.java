@@ -0,0 +1,263 @@
+package dataaccess;
+
+import chess.ChessGame;
+import model.GameData;
+import model.GameSummary;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind cache of game state in front of another GameDAO.
+ * <p>
+ * Games are loaded into memory on first use and served from there, and the
+ * in-memory copy is authoritative: {@link #updateGameState} records the new
+ * state and returns at once, and a background task writes the latest state of
+ * every changed game to the underlying DAO at most {@code flushDelayMillis}
+ * later. Several moves made within one flush interval cost a single write.
+ * Player changes, creation and clearing are rare and go straight through.
+ * <p>
+ * Callers get and hand over snapshot copies of each game, so a ChessGame a
+ * caller mutates is never the one being flushed or served to someone else.
+ * Finished games are dropped from memory once written, and any game with
+ * nothing left to write is dropped once it goes unused for
+ * {@code idleMillis}; it is loaded again on next use. Call {@link #close()}
+ * on shutdown to write out anything still pending.
+ */
+public class CachingGameDAO implements GameDAO, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(CachingGameDAO.class.getName());
+    public static final long DEFAULT_FLUSH_DELAY_MILLIS = 250;
+    public static final long DEFAULT_IDLE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final GameDAO delegate;
+    private final Map<Integer, GameData> games = new ConcurrentHashMap<>();
+    // Latest unwritten state of each changed game; a newer state replaces an older one
+    private final Map<Integer, ChessGame> pending = new ConcurrentHashMap<>();
+    // When each cached game was last used, in System.nanoTime() terms
+    private final Map<Integer, Long> lastUsed = new ConcurrentHashMap<>();
+    private final long idleNanos;
+    // Held while writing to the delegate, so flushes never interleave with clear or player updates
+    private final Object writeLock = new Object();
+    private final ScheduledExecutorService flusher;
+
+    public CachingGameDAO(GameDAO delegate) {
+        this(delegate, DEFAULT_FLUSH_DELAY_MILLIS);
+    }
+
+    public CachingGameDAO(GameDAO delegate, long flushDelayMillis) {
+        this(delegate, flushDelayMillis, DEFAULT_IDLE_MILLIS);
+    }
+
+    /**
+     * @param flushDelayMillis how long a changed game state may wait to be written
+     * @param idleMillis       how long a game with nothing to write stays cached unused
+     */
+    public CachingGameDAO(GameDAO delegate, long flushDelayMillis, long idleMillis) {
+        this.delegate = delegate;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-state-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(() -> {
+            flushQuietly();
+            evictIdle();
+        }, flushDelayMillis, flushDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        synchronized (writeLock) {
+            pending.clear();
+            games.clear();
+            lastUsed.clear();
+            delegate.clear();
+        }
+    }
+
+    @Override
+    public int createGame(GameData game) throws DataAccessException {
+        int gameID = delegate.createGame(game);
+        GameData created = delegate.getGame(gameID);
+        if (created != null) {
+            games.putIfAbsent(gameID, snapshot(created));
+            touch(gameID);
+        }
+        return gameID;
+    }
+
+    @Override
+    public GameData getGame(int gameID) throws DataAccessException {
+        GameData game = games.get(gameID);
+        if (game == null) {
+            GameData loaded = delegate.getGame(gameID);
+            if (loaded == null) {
+                return null;
+            }
+            // Another thread may have loaded or changed it meanwhile; theirs wins
+            GameData fresh = snapshot(loaded);
+            GameData existing = games.putIfAbsent(gameID, fresh);
+            game = existing != null ? existing : fresh;
+        }
+        touch(gameID);
+        return snapshot(game);
+    }
+
+    @Override
+    public List<GameSummary> listGameSummaries(GameQuery query) throws DataAccessException {
+        if (query.activeOnly() && !pending.isEmpty()) {
+            // A game that just ended may still be stored as active
+            flush();
+        }
+        return delegate.listGameSummaries(query);
+    }
+
+    @Override
+    public void updateGame(int gameID, String whiteUsername, String blackUsername) throws DataAccessException {
+        synchronized (writeLock) {
+            // Bring the stored row up to date before it changes hands
+            flush(gameID);
+            delegate.updateGame(gameID, whiteUsername, blackUsername);
+            GameData stored = delegate.getGame(gameID);
+            if (stored == null) {
+                return;
+            }
+            games.compute(gameID, (id, cached) -> new GameData(id, stored.whiteUsername(), stored.blackUsername(),
+                    stored.gameName(), cached != null ? cached.game() : snapshot(stored).game()));
+        }
+    }
+
+    @Override
+    public void updateGameState(int gameID, ChessGame updatedGame) throws DataAccessException {
+        ChessGame state = new ChessGame(updatedGame);
+        while (true) {
+            if (!games.containsKey(gameID) && getGame(gameID) == null) {
+                throw new DataAccessException("Error: game not found");
+            }
+            // Marked pending in the same step, so it cannot be evicted in between
+            GameData updated = games.computeIfPresent(gameID, (id, cached) -> {
+                pending.put(id, state);
+                return new GameData(id, cached.whiteUsername(), cached.blackUsername(), cached.gameName(), state);
+            });
+            if (updated != null) {
+                touch(gameID);
+                return;
+            }
+            // Evicted since the check; load it again
+        }
+    }
+
+    /**
+     * Writes every pending game state to the underlying DAO
+     *
+     * @throws DataAccessException if a write failed; the failed states stay pending
+     */
+    public void flush() throws DataAccessException {
+        synchronized (writeLock) {
+            DataAccessException failure = null;
+            for (Integer gameID : pending.keySet()) {
+                try {
+                    flush(gameID);
+                } catch (DataAccessException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Drops every cached game that has nothing left to write and has not been
+     * used for the idle time
+     */
+    void evictIdle() {
+        long now = System.nanoTime();
+        // Flushes hold the lock between taking a state off pending and writing it
+        synchronized (writeLock) {
+            for (Integer gameID : games.keySet()) {
+                games.computeIfPresent(gameID, (id, cached) -> {
+                    Long used = lastUsed.get(id);
+                    if (pending.containsKey(id) || (used != null && now - used < idleNanos)) {
+                        return cached;
+                    }
+                    return null;
+                });
+            }
+            // Including finished games dropped after their last write
+            lastUsed.keySet().removeIf(id -> !games.containsKey(id));
+        }
+    }
+
+    /**
+     * @return the number of games held in memory
+     */
+    public int cachedGames() {
+        return games.size();
+    }
+
+    /**
+     * @return the number of games whose latest state has not been written yet
+     */
+    public int pendingWrites() {
+        return pending.size();
+    }
+
+    private void flush(int gameID) throws DataAccessException {
+        ChessGame state = pending.remove(gameID);
+        if (state == null) {
+            return;
+        }
+        try {
+            delegate.updateGameState(gameID, state);
+        } catch (DataAccessException e) {
+            // Keep it for the next flush unless a newer state has arrived since
+            pending.putIfAbsent(gameID, state);
+            throw e;
+        }
+        if (state.getGameState() != ChessGame.GameState.ACTIVE && !pending.containsKey(gameID)) {
+            games.computeIfPresent(gameID, (id, cached) -> cached.game() == state ? null : cached);
+        }
+    }
+
+    private void touch(int gameID) {
+        lastUsed.put(gameID, System.nanoTime());
+    }
+
+    private void flushQuietly() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            flush();
+        } catch (DataAccessException | RuntimeException e) {
+            LOGGER.warning("Failed to write game state, will retry: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the background writer and writes out everything still pending
+     */
+    @Override
+    public void close() throws DataAccessException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private static GameData snapshot(GameData game) {
+        ChessGame copy = game.game() == null ? null : new ChessGame(game.game());
+        return new GameData(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(), copy);
+    }
+}
@@ -14,7 +14,7 @@ public class ChessBoardAdapter implements JsonSerializer<ChessBoard>, JsonDeseri
         for (int row = 0; row < 8; row++) {
             JsonArray rowArray = new JsonArray();
             for (int col = 0; col < 8; col++) {
-                ChessPiece piece = board.getPiece(new chess.ChessPosition(row + 1, col + 1));
+                ChessPiece piece = board.getPiece(chess.ChessPosition.of(row + 1, col + 1));
                 if (piece == null) {
                     rowArray.add(JsonNull.INSTANCE);
                 } else {
@@ -41,7 +41,7 @@ public class ChessBoardAdapter implements JsonSerializer<ChessBoard>, JsonDeseri
                 JsonElement element = rowArray.get(col);
                 if (!element.isJsonNull()) {
                     ChessPiece piece = context.deserialize(element, ChessPiece.class);
-                    board.addPiece(new chess.ChessPosition(row + 1, col + 1), piece);
+                    board.addPiece(chess.ChessPosition.of(row + 1, col + 1), piece);
                 }
             }
         }
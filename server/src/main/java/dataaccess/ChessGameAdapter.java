@@ -4,6 +4,7 @@ import chess.ChessGame;
 import chess.ChessBoard;
 import chess.ChessMove;
 import chess.ChessPosition;
+import chess.GameCodec;
 import com.google.gson.*;
 import java.lang.reflect.Type;
 import model.GameData;
@@ -12,6 +13,23 @@ import java.util.logging.Level;
 
 public class ChessGameAdapter implements JsonSerializer<ChessGame>, JsonDeserializer<ChessGame> {
     private static final Logger LOGGER = Logger.getLogger(ChessGameAdapter.class.getName());
+    private final boolean compact;
+
+    /**
+     * Creates an adapter that writes games as JSON objects
+     */
+    public ChessGameAdapter() {
+        this(false);
+    }
+
+    /**
+     * @param compact True to write games in GameCodec's text form, a single
+     *                JSON string, instead of as JSON objects. Both forms are
+     *                always read.
+     */
+    public ChessGameAdapter(boolean compact) {
+        this.compact = compact;
+    }
 
     @Override
     public JsonElement serialize(ChessGame game, Type type, JsonSerializationContext context) {
@@ -22,6 +40,10 @@ public class ChessGameAdapter implements JsonSerializer<ChessGame>, JsonDeserial
             LOGGER.log(Level.WARNING, "TEAM_TURN: Error: Game is null");
             return JsonNull.INSTANCE;
         }
+
+        if (compact) {
+            return new JsonPrimitive(GameCodec.toText(game));
+        }
         
         ChessGame.TeamColor teamTurn = game.getTeamTurn();
         LOGGER.log(Level.INFO, "TEAM_TURN: Initial teamTurn: " + teamTurn);
@@ -56,6 +78,14 @@ public class ChessGameAdapter implements JsonSerializer<ChessGame>, JsonDeserial
 
     @Override
     public ChessGame deserialize(JsonElement json, Type type, JsonDeserializationContext context) throws JsonParseException {
+        // Compact text form, see GameCodec
+        if (json.isJsonPrimitive()) {
+            try {
+                return GameCodec.fromText(json.getAsString());
+            } catch (IllegalArgumentException e) {
+                throw new JsonParseException("Invalid game: " + e.getMessage(), e);
+            }
+        }
         LOGGER.log(Level.INFO, "TEAM_TURN: ====== Deserialization START =====");
         JsonObject jsonObject = json.getAsJsonObject();
         LOGGER.log(Level.INFO, "TEAM_TURN: Raw JSON: " + jsonObject);
@@ -43,8 +43,7 @@ public class ChessPieceAdapter extends TypeAdapter<ChessPiece> {
         in.endObject();
 
         if (pieceColor != null && pieceType != null) {
-            // The ChessPiece constructor handles creating the correct PieceMovesCalculator
-            return new ChessPiece(pieceColor, pieceType);
+            return ChessPiece.of(pieceColor, pieceType);
         }
         return null; // Or throw an exception if pieceColor or pieceType are missing
     }
@@ -0,0 +1,396 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A bounded pool of JDBC connections, so a DAO call borrows an open
+ * connection instead of paying for a TCP and MySQL handshake.
+ * <p>
+ * {@link #getConnection()} hands out a wrapper around a pooled connection;
+ * closing the wrapper returns the connection to the pool after rolling back
+ * any open transaction and restoring auto-commit, so the DAOs' existing
+ * try/finally blocks work unchanged. At most {@code maxSize} connections exist
+ * at once, and a borrower waits up to {@code maxWaitMillis} for one to free
+ * up. Connections that have sat idle for a while are validated before reuse,
+ * connections idle longer than {@code idleTimeoutMillis} are closed in the
+ * background, and a connection held longer than {@code leakDetectionMillis}
+ * is logged along with the stack that borrowed it.
+ */
+public final class ConnectionPool implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    /**
+     * Opens a new physical connection to the database
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection connect() throws SQLException;
+    }
+
+    /**
+     * Pool settings. {@link #fromProperties} reads them from the
+     * {@code db.pool.*} keys of db.properties, with defaults for any that are
+     * missing.
+     *
+     * @param maxSize                   the most connections open at once
+     * @param minIdle                   idle connections kept open by eviction
+     * @param maxWaitMillis             how long a borrower waits before failing
+     * @param idleTimeoutMillis         idle time after which a connection is closed
+     * @param validateAfterMillis       idle time after which a connection is checked before reuse
+     * @param validationTimeoutSeconds  how long a validity check may take
+     * @param leakDetectionMillis       borrow time after which a connection is reported as leaked, or 0 for never
+     */
+    public record Config(int maxSize, int minIdle, long maxWaitMillis, long idleTimeoutMillis,
+                         long validateAfterMillis, int validationTimeoutSeconds, long leakDetectionMillis) {
+
+        public static Config defaults() {
+            return new Config(10, 0, 5_000, 300_000, 5_000, 2, 60_000);
+        }
+
+        public static Config fromProperties(Properties props) {
+            Config defaults = defaults();
+            return new Config(
+                    intProperty(props, "db.pool.maxSize", defaults.maxSize()),
+                    intProperty(props, "db.pool.minIdle", defaults.minIdle()),
+                    longProperty(props, "db.pool.maxWaitMillis", defaults.maxWaitMillis()),
+                    longProperty(props, "db.pool.idleTimeoutMillis", defaults.idleTimeoutMillis()),
+                    longProperty(props, "db.pool.validateAfterMillis", defaults.validateAfterMillis()),
+                    intProperty(props, "db.pool.validationTimeoutSeconds", defaults.validationTimeoutSeconds()),
+                    longProperty(props, "db.pool.leakDetectionMillis", defaults.leakDetectionMillis()));
+        }
+
+        private static int intProperty(Properties props, String key, int defaultValue) {
+            String value = props.getProperty(key);
+            return value == null ? defaultValue : Integer.parseInt(value.trim());
+        }
+
+        private static long longProperty(Properties props, String key, long defaultValue) {
+            String value = props.getProperty(key);
+            return value == null ? defaultValue : Long.parseLong(value.trim());
+        }
+    }
+
+    /**
+     * A snapshot of the pool's counters
+     *
+     * @param active            connections currently borrowed
+     * @param idle              open connections waiting to be borrowed
+     * @param waiting           borrowers currently waiting for a connection
+     * @param borrows           connections handed out since the pool was created
+     * @param timeouts          borrowers that gave up waiting
+     * @param averageWaitMillis average time a borrower waited
+     * @param maxWaitMillis     longest time a borrower waited
+     * @param created           physical connections opened
+     * @param closed            physical connections closed: evicted, invalid or broken
+     * @param leaks             borrows reported as leaked
+     */
+    public record Metrics(int active, int idle, int waiting, long borrows, long timeouts,
+                          double averageWaitMillis, double maxWaitMillis, long created, long closed, long leaks) {
+    }
+
+    private final ConnectionFactory factory;
+    private final Config config;
+    private final Semaphore permits;
+    // Most recently returned first, so eviction takes from the tail
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong leaks = new AtomicLong();
+
+    public ConnectionPool(ConnectionFactory factory, Config config) {
+        if (config.maxSize() < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.factory = factory;
+        this.config = config;
+        this.permits = new Semaphore(config.maxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1_000, Math.min(config.idleTimeoutMillis(),
+                config.leakDetectionMillis() > 0 ? config.leakDetectionMillis() : Long.MAX_VALUE) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a pool of connections opened with {@link DriverManager} and
+     * switched to the given catalog
+     */
+    public static ConnectionPool forUrl(String url, String username, String password, String catalog, Config config) {
+        return new ConnectionPool(() -> {
+            Connection connection = DriverManager.getConnection(url, username, password);
+            connection.setCatalog(catalog);
+            return connection;
+        }, config);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the configured time for one to be
+     * returned if the pool is at its limit. Close the connection to return it.
+     *
+     * @throws SQLException if no connection became free in time or a new one could not be opened
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(config.maxWaitMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a connection", e);
+        }
+        long waited = System.nanoTime() - start;
+        waitNanos.addAndGet(waited);
+        maxWaitNanos.accumulate(waited);
+        if (!acquired) {
+            timeouts.incrementAndGet();
+            throw new SQLException("Timed out after " + config.maxWaitMillis() + " ms waiting for a database connection ("
+                    + borrowed.size() + " in use)");
+        }
+
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(factory.connect());
+                created.incrementAndGet();
+            }
+            pooled.borrowedAt = System.nanoTime();
+            pooled.borrower = config.leakDetectionMillis() > 0 ? new Throwable("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            borrowed.add(pooled);
+            borrows.incrementAndGet();
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @return an idle connection that is still usable, or null if there is none
+     */
+    private PooledConnection takeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pooled.returnedAt);
+            if (idleMillis < config.validateAfterMillis() || isValid(pooled)) {
+                return pooled;
+            }
+            LOGGER.info("Discarding pooled connection that failed validation");
+            discard(pooled);
+        }
+        return null;
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.connection.isValid(config.validationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Takes back a connection whose handle was closed
+     */
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        try {
+            if (pooled.broken || closed) {
+                discard(pooled);
+                return;
+            }
+            try {
+                Connection connection = pooled.connection;
+                if (!connection.getAutoCommit()) {
+                    // Never hand a half-finished transaction to the next borrower
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+                connection.clearWarnings();
+            } catch (SQLException e) {
+                discard(pooled);
+                return;
+            }
+            pooled.returnedAt = System.nanoTime();
+            idle.offerFirst(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        discarded.incrementAndGet();
+        try {
+            pooled.connection.close();
+        } catch (SQLException e) {
+            LOGGER.fine("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Closes connections idle past the timeout and reports borrows held past
+     * the leak threshold
+     */
+    void housekeep() {
+        long now = System.nanoTime();
+        int keep = config.minIdle();
+        int seen = 0;
+        // Newest first, so the connections kept for minIdle are the freshest
+        for (Iterator<PooledConnection> it = idle.iterator(); it.hasNext(); ) {
+            PooledConnection pooled = it.next();
+            if (++seen <= keep) {
+                continue;
+            }
+            if (TimeUnit.NANOSECONDS.toMillis(now - pooled.returnedAt) >= config.idleTimeoutMillis()
+                    && idle.remove(pooled)) {
+                discard(pooled);
+            }
+        }
+
+        if (config.leakDetectionMillis() > 0) {
+            for (PooledConnection pooled : borrowed) {
+                if (!pooled.leakReported
+                        && TimeUnit.NANOSECONDS.toMillis(now - pooled.borrowedAt) >= config.leakDetectionMillis()) {
+                    pooled.leakReported = true;
+                    leaks.incrementAndGet();
+                    LOGGER.log(Level.WARNING, "Possible connection leak: borrowed for over "
+                            + config.leakDetectionMillis() + " ms", pooled.borrower);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a snapshot of the pool's counters
+     */
+    public Metrics metrics() {
+        long borrowCount = borrows.get();
+        long waits = borrowCount + timeouts.get();
+        return new Metrics(borrowed.size(), idle.size(), permits.getQueueLength(), borrowCount, timeouts.get(),
+                waits == 0 ? 0 : waitNanos.get() / 1e6 / waits, maxWaitNanos.get() / 1e6,
+                created.get(), discarded.get(), leaks.get());
+    }
+
+    /**
+     * Closes the idle connections and stops handing out new ones. Borrowed
+     * connections are closed as they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    private final class PooledConnection {
+        final Connection connection;
+        volatile long borrowedAt;
+        volatile long returnedAt;
+        volatile Throwable borrower;
+        volatile boolean leakReported;
+        // Set when the driver reported an error, so the connection is not reused
+        volatile boolean broken;
+
+        PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Handle(this));
+        }
+    }
+
+    /**
+     * What a borrower holds: forwards to the pooled connection until closed,
+     * and returns it to the pool on close instead of closing it
+     */
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (released.compareAndSet(false, true)) {
+                        release(pooled);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return released.get() || pooled.connection.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled" + pooled.connection;
+                }
+                default -> {
+                }
+            }
+            if (released.get()) {
+                throw new SQLException("Connection has been returned to the pool");
+            }
+            try {
+                return method.invoke(pooled.connection, args);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof SQLException sqlException && isConnectionError(sqlException)) {
+                    pooled.broken = true;
+                }
+                throw e.getCause();
+            }
+        }
+
+        private static boolean isConnectionError(SQLException e) {
+            // SQLState class 08 is "connection exception"
+            String state = e.getSQLState();
+            return state != null && state.startsWith("08");
+        }
+    }
+}
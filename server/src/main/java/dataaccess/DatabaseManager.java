@@ -11,6 +11,8 @@ public class DatabaseManager {
     private static String dbUsername;
     private static String dbPassword;
     private static String connectionUrl;
+    private static ConnectionPool.Config poolConfig;
+    private static ConnectionPool pool;
 
     /*
      * Load the database information for the db.properties file.
@@ -73,17 +75,54 @@ public class DatabaseManager {
                     white_username VARCHAR(255),
                     black_username VARCHAR(255),
                     game_name VARCHAR(255) NOT NULL,
-                    game_state JSON NOT NULL,
+                    packed_state BINARY(34) NOT NULL,
+                    ply INT NOT NULL DEFAULT 0,
+                    snapshot_ply INT NOT NULL DEFAULT 0,
+                    active BOOLEAN NOT NULL DEFAULT TRUE,
+                    INDEX game_active_id (active, id),
                     FOREIGN KEY (white_username) REFERENCES user(username) ON DELETE SET NULL,
                     FOREIGN KEY (black_username) REFERENCES user(username) ON DELETE SET NULL
                 )
                 """;
 
+            // Create move log table: one row per move, replayed on top of the
+            // packed_state snapshot taken at snapshot_ply
+            var createGameMoveTable = """
+                CREATE TABLE IF NOT EXISTS game_move (
+                    game_id INT NOT NULL,
+                    ply INT NOT NULL,
+                    move SMALLINT NOT NULL,
+                    PRIMARY KEY (game_id, ply),
+                    FOREIGN KEY (game_id) REFERENCES game(id) ON DELETE CASCADE
+                )
+                """;
+
+            // Only tables from before the packed form lack the active column; their
+            // JSON game states are either the compact text form, ending in the game
+            // state's name, or older JSON objects with a gameState field
+            var backfillActive = """
+                UPDATE game SET active = COALESCE(
+                    JSON_TYPE(game_state) = 'STRING' AND JSON_UNQUOTE(game_state) LIKE '% ACTIVE'
+                    OR JSON_UNQUOTE(JSON_EXTRACT(game_state, '$.gameState')) = 'ACTIVE',
+                    FALSE)
+                """;
+
             try (var statement = conn.createStatement()) {
                 LOGGER.info("Executing CREATE TABLE statements");
                 statement.execute(createUserTable);
                 statement.execute(createAuthTable);
                 statement.execute(createGameTable);
+                // Game tables created before the move log lack its columns
+                addColumnIfMissing(conn, "game", "ply", "INT NOT NULL DEFAULT 0");
+                addColumnIfMissing(conn, "game", "snapshot_ply", "INT NOT NULL DEFAULT 0");
+                // Filled in from the JSON game_state column by MySQLGameDAO, which then drops it
+                addColumnIfMissing(conn, "game", "packed_state", "BINARY(34) NULL");
+                // Game lists filter on active without reading the game state
+                if (addColumnIfMissing(conn, "game", "active", "BOOLEAN NOT NULL DEFAULT TRUE")) {
+                    statement.execute(backfillActive);
+                    statement.execute("CREATE INDEX game_active_id ON game (active, id)");
+                }
+                statement.execute(createGameMoveTable);
                 LOGGER.info("CREATE TABLE statements executed successfully");
             }
         } catch (SQLException ex) {
@@ -94,9 +133,40 @@ public class DatabaseManager {
     }
 
     /**
-     * Create a connection to the database and sets the catalog based upon the
-     * properties specified in db.properties. Connections to the database should
-     * be short-lived, and you must close the connection when you are done with it.
+     * @return whether the column was missing and has been added
+     */
+    private static boolean addColumnIfMissing(Connection conn, String table, String column, String definition)
+            throws SQLException {
+        if (hasColumn(conn, table, column)) {
+            return false;
+        }
+        LOGGER.info("Adding column " + column + " to table " + table);
+        try (var statement = conn.createStatement()) {
+            statement.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        }
+        return true;
+    }
+
+    /**
+     * @return whether a table in the current database has a column
+     */
+    static boolean hasColumn(Connection conn, String table, String column) throws SQLException {
+        var query = "SELECT COUNT(*) FROM information_schema.columns "
+                + "WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?";
+        try (var preparedStatement = conn.prepareStatement(query)) {
+            preparedStatement.setString(1, table);
+            preparedStatement.setString(2, column);
+            try (var rs = preparedStatement.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    /**
+     * Borrows a connection to the database from the connection pool, with the
+     * catalog set based upon the properties specified in db.properties.
+     * Connections to the database should be short-lived, and you must close the
+     * connection when you are done with it; closing returns it to the pool.
      * The easiest way to do that is with a try-with-resource block.
      * <br/>
      * <code>
@@ -106,18 +176,40 @@ public class DatabaseManager {
      * </code>
      */
     static Connection getConnection() throws DataAccessException {
-        LOGGER.info("Attempting to get database connection");
         try {
-            var conn = DriverManager.getConnection(connectionUrl, dbUsername, dbPassword);
-            conn.setCatalog(databaseName);
-            LOGGER.info("Database connection obtained successfully");
-            return conn;
+            return pool().getConnection();
         } catch (SQLException ex) {
             LOGGER.severe("SQL Error getting database connection: " + ex.getMessage());
             throw new DataAccessException("failed to get connection", ex);
         }
     }
 
+    private static synchronized ConnectionPool pool() {
+        if (pool == null) {
+            LOGGER.info("Creating connection pool: " + poolConfig);
+            pool = ConnectionPool.forUrl(connectionUrl, dbUsername, dbPassword, databaseName, poolConfig);
+        }
+        return pool;
+    }
+
+    /**
+     * @return the connection pool's counters, or null if no connection has been made yet
+     */
+    public static synchronized ConnectionPool.Metrics poolMetrics() {
+        return pool == null ? null : pool.metrics();
+    }
+
+    /**
+     * Closes the pooled connections. A later {@link #getConnection()} starts a new pool.
+     */
+    public static synchronized void closePool() {
+        if (pool != null) {
+            LOGGER.info("Closing connection pool: " + pool.metrics());
+            pool.close();
+            pool = null;
+        }
+    }
+
     private static void loadPropertiesFromResources() {
         LOGGER.info("Loading database properties from resources");
         try (var propStream = Thread.currentThread().getContextClassLoader().getResourceAsStream("db.properties")) {
@@ -143,6 +235,7 @@ public class DatabaseManager {
         var host = props.getProperty("db.host");
         var port = Integer.parseInt(props.getProperty("db.port"));
         connectionUrl = String.format("jdbc:mysql://%s:%d/%s", host, port, databaseName);
+        poolConfig = ConnectionPool.Config.fromProperties(props);
         LOGGER.info("Database properties loaded: " + connectionUrl);
     }
 }
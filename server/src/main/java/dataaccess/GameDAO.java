@@ -1,6 +1,7 @@
 package dataaccess;
 
 import model.GameData;
+import model.GameSummary;
 import java.util.List;
 
 /**
@@ -30,11 +31,12 @@ public interface GameDAO {
     GameData getGame(int gameID) throws DataAccessException;
 
     /**
-     * Lists all games
-     * @return list of all games
+     * Lists a page of games without loading their boards
+     * @param query which games to list, see {@link GameQuery}
+     * @return the matching games in ascending ID order, at most {@code query.limit()} of them
      * @throws DataAccessException if an error occurs
      */
-    List<GameData> listGames() throws DataAccessException;
+    List<GameSummary> listGameSummaries(GameQuery query) throws DataAccessException;
 
     /**
      * Updates a game
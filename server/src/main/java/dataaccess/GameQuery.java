@@ -0,0 +1,18 @@
+package dataaccess;
+
+/**
+ * Selects a page of games for a game list. Games come in ascending ID order,
+ * so the last ID of one page is the cursor for the next.
+ *
+ * @param afterGameID   only games with a higher ID, or null to start from the first game
+ * @param limit         the most games to return
+ * @param openSeatsOnly only games with a seat still free
+ * @param activeOnly    only games that are still being played
+ */
+public record GameQuery(Integer afterGameID, int limit, boolean openSeatsOnly, boolean activeOnly) {
+    public GameQuery {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package dataaccess;
 
+import chess.ChessGame;
 import model.GameData;
-import java.util.ArrayList;
+import model.GameSummary;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,8 +37,16 @@ public class MemoryGameDAO implements GameDAO {
     }
 
     @Override
-    public List<GameData> listGames() {
-        return new ArrayList<>(games.values());
+    public List<GameSummary> listGameSummaries(GameQuery query) {
+        return games.values().stream()
+                .filter(game -> query.afterGameID() == null || game.gameID() > query.afterGameID())
+                .filter(game -> !query.openSeatsOnly() || game.whiteUsername() == null || game.blackUsername() == null)
+                .filter(game -> !query.activeOnly() || game.game() == null
+                        || game.game().getGameState() == ChessGame.GameState.ACTIVE)
+                .sorted(Comparator.comparingInt(GameData::gameID))
+                .limit(query.limit())
+                .map(game -> new GameSummary(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName()))
+                .toList();
     }
 
     @Override
@@ -1,27 +1,72 @@
 package dataaccess;
 
 import model.GameData;
+import model.GameSummary;
 import chess.ChessGame;
-import chess.ChessPiece;
-import chess.ChessBoard;
+import chess.ChessMove;
+import chess.GameCodec;
+import chess.PackedMove;
 import com.google.gson.Gson;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
-import com.google.gson.JsonSyntaxException;
 
 public class MySQLGameDAO implements GameDAO {
     private static final Logger LOGGER = Logger.getLogger(MySQLGameDAO.class.getName());
+    // Plies between full packed_state snapshots; the moves in between are replayed on load
+    static final int SNAPSHOT_INTERVAL = 32;
     private final Gson gson;
 
+    /**
+     * Game states are stored in {@link GameCodec}'s binary form.
+     *
+     * @param gson reads game states stored as JSON by earlier versions, which
+     *             are converted to the binary form on startup
+     */
     public MySQLGameDAO(Gson gson) throws DataAccessException {
         LOGGER.info("Initializing MySQLGameDAO");
         DatabaseManager.initializeDatabase();
         this.gson = gson;
+        convertJsonStates();
         LOGGER.info("MySQLGameDAO initialized");
     }
 
+    /**
+     * Fills in packed_state for rows stored with a JSON game_state, then drops
+     * the JSON column
+     */
+    private void convertJsonStates() throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection()) {
+            if (!DatabaseManager.hasColumn(conn, "game", "game_state")) {
+                return;
+            }
+            LOGGER.info("Converting JSON game states to the packed form");
+            conn.setAutoCommit(false);
+            try (var select = conn.prepareStatement(
+                         "SELECT id, game_state FROM game WHERE packed_state IS NULL FOR UPDATE");
+                 var update = conn.prepareStatement("UPDATE game SET packed_state = ? WHERE id = ?");
+                 var rs = select.executeQuery()) {
+                while (rs.next()) {
+                    ChessGame game = gson.fromJson(rs.getString("game_state"), ChessGame.class);
+                    update.setBytes(1, GameCodec.encode(game == null ? new ChessGame() : game));
+                    update.setInt(2, rs.getInt("id"));
+                    update.addBatch();
+                }
+                update.executeBatch();
+            }
+            conn.commit();
+            try (var statement = conn.createStatement()) {
+                statement.execute("ALTER TABLE game DROP COLUMN game_state");
+                statement.execute("ALTER TABLE game MODIFY packed_state BINARY(34) NOT NULL");
+            }
+            LOGGER.info("JSON game states converted");
+        } catch (SQLException | RuntimeException ex) {
+            LOGGER.severe("Error converting JSON game states: " + ex.getMessage());
+            throw new DataAccessException("failed to convert stored game states", ex);
+        }
+    }
+
     @Override
     public void clear() throws DataAccessException {
         LOGGER.info("Clearing game table");
@@ -67,7 +112,8 @@ public class MySQLGameDAO implements GameDAO {
     @Override
     public int createGame(GameData game) throws DataAccessException {
         LOGGER.info("Creating game: " + game.gameName());
-        var statement = "INSERT INTO game (white_username, black_username, game_name, game_state) VALUES (?, ?, ?, ?)";
+        var statement = "INSERT INTO game (white_username, black_username, game_name, packed_state, ply, snapshot_ply, "
+                + "active) VALUES (?, ?, ?, ?, ?, ?, ?)";
         Connection conn = null;
         try {
             conn = DatabaseManager.getConnection();
@@ -78,7 +124,11 @@ public class MySQLGameDAO implements GameDAO {
                 preparedStatement.setString(1, game.whiteUsername());
                 preparedStatement.setString(2, game.blackUsername());
                 preparedStatement.setString(3, game.gameName());
-                preparedStatement.setString(4, gson.toJson(game.game()));
+                preparedStatement.setBytes(4, GameCodec.encode(game.game() == null ? new ChessGame() : game.game()));
+                int ply = game.game() == null ? 0 : game.game().getPly();
+                preparedStatement.setInt(5, ply);
+                preparedStatement.setInt(6, ply);
+                preparedStatement.setBoolean(7, isActive(game.game()));
                 LOGGER.info("Executing INSERT statement for game: " + game.gameName());
                 preparedStatement.executeUpdate();
                 LOGGER.info("INSERT statement executed successfully for game: " + game.gameName());
@@ -130,40 +180,34 @@ public class MySQLGameDAO implements GameDAO {
     public GameData getGame(int gameID) throws DataAccessException {
         LOGGER.info("Getting game with ID: " + gameID);
         var statement = "SELECT * FROM game WHERE id = ?";
+        var movesStatement = "SELECT ply, move FROM game_move WHERE game_id = ? AND ply >= ? ORDER BY ply";
         try (var conn = DatabaseManager.getConnection();
              var preparedStatement = conn.prepareStatement(statement)) {
             preparedStatement.setInt(1, gameID);
             LOGGER.info("Executing SELECT statement for game ID: " + gameID);
+            StoredGame stored;
             try (var rs = preparedStatement.executeQuery()) {
                 LOGGER.info("SELECT statement executed for game ID: " + gameID);
-                if (rs.next()) {
-                    String gameStateJson = rs.getString("game_state");
-                    System.out.println("TEAM_TURN: MySQLGameDAO getGame - Retrieved JSON: " + gameStateJson);
-                    LOGGER.fine("Retrieved game state JSON for ID " + gameID + ": " + gameStateJson);
-                    ChessGame game = null;
-                    try {
-                        System.out.println("TEAM_TURN: MySQLGameDAO getGame - About to deserialize");
-                        game = gson.fromJson(gameStateJson, ChessGame.class);
-                        System.out.println("TEAM_TURN: MySQLGameDAO getGame - Deserialized teamTurn: " + game.getTeamTurn());
-                        LOGGER.fine("Deserialized game state for ID " + gameID + ": " + game);
-                    } catch (Exception ex) {
-                        LOGGER.severe("Error deserializing game state for ID " + gameID + ": " + ex.getMessage());
-                        throw ex;
+                if (!rs.next()) {
+                    LOGGER.info("Game not found with ID: " + gameID);
+                    return null;
+                }
+                stored = readStoredGame(rs);
+            }
+
+            // Replay the moves made since the snapshot
+            try (var movesQuery = conn.prepareStatement(movesStatement)) {
+                movesQuery.setInt(1, gameID);
+                movesQuery.setInt(2, stored.snapshotPly());
+                try (var rs = movesQuery.executeQuery()) {
+                    while (rs.next()) {
+                        stored.replay(rs.getInt("ply"), rs.getInt("move"));
                     }
-                    LOGGER.info("Game found with ID: " + gameID);
-                    GameData gameData = new GameData(
-                        rs.getInt("id"),
-                        rs.getString("white_username"),
-                        rs.getString("black_username"),
-                        rs.getString("game_name"),
-                        game
-                    );
-                    LOGGER.info("Returning GameData: " + gameData);
-                    return gameData;
                 }
-                LOGGER.info("Game not found with ID: " + gameID);
-                return null;
             }
+            GameData gameData = stored.toGameData();
+            LOGGER.info("Returning GameData: " + gameData);
+            return gameData;
         } catch (Exception ex) {
             LOGGER.severe("Error getting game with ID " + gameID + ": " + ex.getMessage());
             throw new DataAccessException("failed to get game", ex);
@@ -172,56 +216,74 @@ public class MySQLGameDAO implements GameDAO {
         }
     }
 
+    /**
+     * Lists a page of games from the game row's own columns. Neither packed_state
+     * nor the move log is read, and the (active, id) index and primary key let
+     * each page start at its cursor, so a page costs the same however many
+     * games there are. The active column only changes with a snapshot, which
+     * every game's final state gets.
+     */
     @Override
-    public List<GameData> listGames() throws DataAccessException {
-        LOGGER.info("Listing all games");
-        var statement = "SELECT * FROM game";
+    public List<GameSummary> listGameSummaries(GameQuery query) throws DataAccessException {
+        var statement = new StringBuilder(
+                "SELECT id, white_username, black_username, game_name FROM game WHERE id > ?");
+        if (query.activeOnly()) {
+            statement.append(" AND active = TRUE");
+        }
+        if (query.openSeatsOnly()) {
+            statement.append(" AND (white_username IS NULL OR black_username IS NULL)");
+        }
+        statement.append(" ORDER BY id LIMIT ?");
         try (var conn = DatabaseManager.getConnection();
-             var preparedStatement = conn.prepareStatement(statement);
-             var rs = preparedStatement.executeQuery()) {
-            LOGGER.info("Executing SELECT statement for listing games");
-            var games = new ArrayList<GameData>();
-            while (rs.next()) {
-                String gameStateJson = rs.getString("game_state");
-                LOGGER.fine("Retrieved game state JSON for list: " + gameStateJson);
-                try {
-                    ChessGame game = gson.fromJson(gameStateJson, ChessGame.class);
-                     LOGGER.fine("Deserialized game state for list: " + game);
-                
-                    games.add(new GameData(
-                        rs.getInt("id"),
-                        rs.getString("white_username"),
-                        rs.getString("black_username"),
-                        rs.getString("game_name"),
-                        game
-                    ));
-                } catch (JsonSyntaxException ex) {
-                    LOGGER.severe("JSON Syntax Error listing games: " + ex.getMessage());
-                    // Depending on requirements, you might skip this game or re-throw
-                    throw new DataAccessException("failed to deserialize game state in list", ex);
+             var preparedStatement = conn.prepareStatement(statement.toString())) {
+            preparedStatement.setInt(1, query.afterGameID() == null ? 0 : query.afterGameID());
+            preparedStatement.setInt(2, query.limit());
+            try (var rs = preparedStatement.executeQuery()) {
+                var games = new ArrayList<GameSummary>();
+                while (rs.next()) {
+                    games.add(new GameSummary(rs.getInt("id"), rs.getString("white_username"),
+                            rs.getString("black_username"), rs.getString("game_name")));
                 }
+                LOGGER.info("Listed " + games.size() + " game summaries after game ID " + query.afterGameID());
+                return games;
             }
-            LOGGER.info("Finished listing games, found " + games.size() + " games");
-            return games;
         } catch (SQLException ex) {
-            LOGGER.severe("SQL Error listing games: " + ex.getMessage());
+            LOGGER.severe("SQL Error listing game summaries: " + ex.getMessage());
             throw new DataAccessException("failed to list games", ex);
-        } finally {
-            LOGGER.info("Finished listGames");
+        }
+    }
+
+    /**
+     * Gets every recorded move of a game, in the order they were played. Games
+     * created from a position other than the start, or whose history was cut
+     * short by a position being set up directly, only have the moves since.
+     * @param gameID the game ID to look up
+     * @return the moves, empty if the game has none or does not exist
+     * @throws DataAccessException if there's a database error
+     */
+    public List<ChessMove> getMoveHistory(int gameID) throws DataAccessException {
+        var statement = "SELECT move FROM game_move WHERE game_id = ? ORDER BY ply";
+        try (var conn = DatabaseManager.getConnection();
+             var preparedStatement = conn.prepareStatement(statement)) {
+            preparedStatement.setInt(1, gameID);
+            try (var rs = preparedStatement.executeQuery()) {
+                var moves = new ArrayList<ChessMove>();
+                while (rs.next()) {
+                    moves.add(PackedMove.toChessMove(rs.getInt("move")));
+                }
+                return moves;
+            }
+        } catch (SQLException ex) {
+            LOGGER.severe("SQL Error getting move history for game ID " + gameID + ": " + ex.getMessage());
+            throw new DataAccessException("failed to get move history", ex);
         }
     }
 
     @Override
     public void updateGame(int gameID, String whiteUsername, String blackUsername) throws DataAccessException {
         LOGGER.info("Updating game with ID: " + gameID + ", white: " + whiteUsername + ", black: " + blackUsername);
-        // First get the current game state
-        GameData currentGame = getGame(gameID);
-        if (currentGame == null) {
-            LOGGER.warning("Game not found for update with ID: " + gameID);
-            throw new DataAccessException("Error: game not found");
-        }
-
-        var statement = "UPDATE game SET white_username = ?, black_username = ?, game_state = ? WHERE id = ?";
+        // Only the players change; the game state and its move log are left alone
+        var statement = "UPDATE game SET white_username = ?, black_username = ? WHERE id = ?";
         Connection conn = null;
         try {
             conn = DatabaseManager.getConnection();
@@ -231,22 +293,13 @@ public class MySQLGameDAO implements GameDAO {
             try (var preparedStatement = conn.prepareStatement(statement)) {
                 preparedStatement.setString(1, whiteUsername);
                 preparedStatement.setString(2, blackUsername);
-                // Re-serialize the current game state
-                preparedStatement.setString(3, gson.toJson(currentGame.game()));
-                preparedStatement.setInt(4, gameID);
+                preparedStatement.setInt(3, gameID);
                 LOGGER.info("Executing UPDATE statement for game ID: " + gameID);
                 int rowsAffected = preparedStatement.executeUpdate();
                 LOGGER.info("UPDATE statement executed for game ID: " + gameID + ", rows affected: " + rowsAffected);
                 if (rowsAffected == 0) {
-                    LOGGER.warning("Game not found for update (after get): " + gameID);
-                    if (conn != null) {
-                        try {
-                            conn.rollback(); // Rollback transaction
-                            LOGGER.warning("Transaction rolled back for updating game (not found): " + gameID);
-                        } catch (SQLException rollbackEx) {
-                            LOGGER.severe("Error during rollback (not found): " + rollbackEx.getMessage());
-                        }
-                    }
+                    LOGGER.warning("Game not found for update with ID: " + gameID);
+                    conn.rollback(); // Rollback transaction
                     throw new DataAccessException("Error: game not found");
                 }
             }
@@ -277,43 +330,85 @@ public class MySQLGameDAO implements GameDAO {
     }
 
     /**
-     * Updates the game state for a specific game
+     * Updates the game state for a specific game.
+     * <p>
+     * Moves made since the stored ply are appended to the game_move table, a
+     * few bytes each, and only the ply counter on the game row changes. The
+     * full packed_state is rewritten as a new snapshot every
+     * {@value #SNAPSHOT_INTERVAL} plies, when the game ends, or when the new
+     * state does not follow on from the stored one by recorded moves. If moves
+     * were taken back, the log loses the moves past the new position; if the
+     * position was set up directly, the log is replaced by the moves the new
+     * state has recorded since.
      * @param gameID the ID of the game to update
      * @param updatedGame the updated ChessGame object
      * @throws DataAccessException if the game doesn't exist or there's a database error
      */
     public void updateGameState(int gameID, ChessGame updatedGame) throws DataAccessException {
-        System.out.println("TEAM_TURN: MySQLGameDAO updateGameState - teamTurn: " + updatedGame.getTeamTurn());
-        System.out.println("TEAM_TURN: MySQLGameDAO updateGameState - About to serialize game");
-        String gameJson = gson.toJson(updatedGame);
-        System.out.println("TEAM_TURN: MySQLGameDAO updateGameState - Serialized JSON: " + gameJson);
-        
-        var statement = "UPDATE game SET game_state = ? WHERE id = ?";
+        int newPly = updatedGame.getPly();
         Connection conn = null;
         try {
              conn = DatabaseManager.getConnection();
              conn.setAutoCommit(false); // Start transaction
              LOGGER.info("Transaction started for updating game state for game ID: " + gameID);
 
-             try (var preparedStatement = conn.prepareStatement(statement)) {
-                preparedStatement.setString(1, gameJson);
-                preparedStatement.setInt(2, gameID);
-                LOGGER.info("Executing UPDATE statement for game state, ID: " + gameID);
-                int rowsAffected = preparedStatement.executeUpdate();
-                LOGGER.info("UPDATE statement executed for game state, ID: " + gameID + ", rows affected: " + rowsAffected);
-                if (rowsAffected == 0) {
-                    LOGGER.warning("Game not found for state update with ID: " + gameID);
-                     if (conn != null) {
-                        try {
-                            conn.rollback(); // Rollback transaction
-                            LOGGER.warning("Transaction rolled back for updating game state (not found): " + gameID);
-                        } catch (SQLException rollbackEx) {
-                            LOGGER.severe("Error during rollback (not found): " + rollbackEx.getMessage());
-                        }
+             int storedPly;
+             int snapshotPly;
+             try (var preparedStatement = conn.prepareStatement(
+                     "SELECT ply, snapshot_ply FROM game WHERE id = ? FOR UPDATE")) {
+                preparedStatement.setInt(1, gameID);
+                try (var rs = preparedStatement.executeQuery()) {
+                    if (!rs.next()) {
+                        LOGGER.warning("Game not found for state update with ID: " + gameID);
+                        conn.rollback(); // Rollback transaction
+                        throw new DataAccessException("Error: game not found");
                     }
-                    throw new DataAccessException("Error: game not found");
+                    storedPly = rs.getInt("ply");
+                    snapshotPly = rs.getInt("snapshot_ply");
                 }
-            }
+             }
+
+             int firstRecordedPly = updatedGame.getFirstRecordedPly();
+             boolean followsOn = newPly > storedPly && storedPly >= firstRecordedPly;
+             if (followsOn) {
+                appendMoves(conn, gameID, updatedGame, storedPly, newPly);
+             } else {
+                // Moves past the new position were taken back; a state that got
+                // ahead of the stored one without recording how was set up, and
+                // none of the logged moves lead to it
+                boolean takenBack = newPly <= storedPly;
+                try (var preparedStatement = conn.prepareStatement(
+                        "DELETE FROM game_move WHERE game_id = ? AND ply >= ?")) {
+                    preparedStatement.setInt(1, gameID);
+                    preparedStatement.setInt(2, takenBack ? newPly : 0);
+                    preparedStatement.executeUpdate();
+                }
+                if (!takenBack) {
+                    appendMoves(conn, gameID, updatedGame, firstRecordedPly, newPly);
+                }
+             }
+
+             boolean snapshot = !followsOn
+                     || newPly - snapshotPly >= SNAPSHOT_INTERVAL
+                     || updatedGame.getGameState() != ChessGame.GameState.ACTIVE;
+             if (snapshot) {
+                try (var preparedStatement = conn.prepareStatement(
+                        "UPDATE game SET packed_state = ?, ply = ?, snapshot_ply = ?, active = ? WHERE id = ?")) {
+                    preparedStatement.setBytes(1, GameCodec.encode(updatedGame));
+                    preparedStatement.setInt(2, newPly);
+                    preparedStatement.setInt(3, newPly);
+                    preparedStatement.setBoolean(4, isActive(updatedGame));
+                    preparedStatement.setInt(5, gameID);
+                    LOGGER.info("Writing game state snapshot at ply " + newPly + " for game ID: " + gameID);
+                    preparedStatement.executeUpdate();
+                }
+             } else {
+                try (var preparedStatement = conn.prepareStatement("UPDATE game SET ply = ? WHERE id = ?")) {
+                    preparedStatement.setInt(1, newPly);
+                    preparedStatement.setInt(2, gameID);
+                    preparedStatement.executeUpdate();
+                }
+             }
              conn.commit(); // Commit transaction
              LOGGER.info("Transaction committed for updating game state for game ID: " + gameID);
         } catch (SQLException ex) {
@@ -337,7 +432,61 @@ public class MySQLGameDAO implements GameDAO {
                 }
             }
         }
-        System.out.println("TEAM_TURN: MySQLGameDAO after update - teamTurn: " + updatedGame.getTeamTurn());
         LOGGER.info("Finished updateGameState for ID: " + gameID);
     }
-} 
\ No newline at end of file
+
+    private static void appendMoves(Connection conn, int gameID, ChessGame game, int fromPly, int toPly)
+            throws SQLException {
+        if (fromPly >= toPly) {
+            return;
+        }
+        try (var preparedStatement = conn.prepareStatement(
+                "INSERT INTO game_move (game_id, ply, move) VALUES (?, ?, ?)")) {
+            for (int ply = fromPly; ply < toPly; ply++) {
+                preparedStatement.setInt(1, gameID);
+                preparedStatement.setInt(2, ply);
+                preparedStatement.setShort(3, (short) game.getMove(ply));
+                preparedStatement.addBatch();
+            }
+            LOGGER.info("Appending " + (toPly - fromPly) + " moves for game ID: " + gameID);
+            preparedStatement.executeBatch();
+        }
+    }
+
+    private static boolean isActive(ChessGame game) {
+        return game == null || game.getGameState() == ChessGame.GameState.ACTIVE;
+    }
+
+    private StoredGame readStoredGame(ResultSet rs) throws SQLException {
+        ChessGame game = GameCodec.decode(rs.getBytes("packed_state"));
+        int snapshotPly = rs.getInt("snapshot_ply");
+        game.setPly(snapshotPly);
+        return new StoredGame(rs.getInt("id"), rs.getString("white_username"), rs.getString("black_username"),
+                rs.getString("game_name"), game, snapshotPly, rs.getInt("ply"));
+    }
+
+    /**
+     * A game row as read: the snapshot of its state, with the logged moves
+     * since then replayed on top. A log that does not lead from the snapshot
+     * to the stored ply is an error rather than an older position, which the
+     * next update would otherwise write back as current.
+     */
+    private record StoredGame(int gameID, String whiteUsername, String blackUsername, String gameName,
+                              ChessGame game, int snapshotPly, int ply) {
+        void replay(int movePly, int move) {
+            if (movePly != game.getPly()) {
+                throw new IllegalStateException("Move log for game ID " + gameID + " skips from ply "
+                        + game.getPly() + " to " + movePly);
+            }
+            game.makeMove(move);
+        }
+
+        GameData toGameData() {
+            if (game.getPly() != ply) {
+                throw new IllegalStateException("Move log for game ID " + gameID + " ends at ply "
+                        + game.getPly() + " but the game is at ply " + ply);
+            }
+            return new GameData(gameID, whiteUsername, blackUsername, gameName, game);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package server;
 
 import dataaccess.*;
+import server.handlers.AnalysisHandler;
 import server.handlers.ClearHandler;
 import server.handlers.GameHandler;
 import server.handlers.UserHandler;
+import service.AnalysisService;
 import service.ClearService;
 import service.GameService;
 import service.UserService;
@@ -13,16 +15,23 @@ import com.google.gson.GsonBuilder;
 import chess.ChessGame;
 import chess.ChessBoard;
 import chess.ChessPiece;
+import chess.engine.OpeningBook;
 import dataaccess.ChessGameAdapter;
 import dataaccess.ChessBoardAdapter;
 import dataaccess.ChessPieceAdapter;
 import websocket.WebSocketHandler;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 public class Server {
     private final UserHandler userHandler;
     private final GameHandler gameHandler;
     private final ClearHandler clearHandler;
+    private final AnalysisHandler analysisHandler;
+    private final AnalysisService analysisService;
     private final WebSocketHandler webSocketHandler;
+    private final CachingGameDAO gameDAO;
 
     public Server() {
         try {
@@ -31,32 +40,63 @@ public class Server {
 
             // Create Gson instance with our custom adapters
             System.out.println("TEAM_TURN: Server - Creating Gson instance with adapters");
-            Gson gson = new GsonBuilder()
-                    .registerTypeAdapter(ChessGame.class, new ChessGameAdapter())
-                    .registerTypeAdapter(ChessBoard.class, new ChessBoardAdapter())
-                    .registerTypeAdapter(ChessPiece.class, new ChessPieceAdapter())
-                    .create();
+            // Games go over the wire as JSON objects unless the compact text form is
+            // opted into with -Dchess.compactGames=true
+            Gson gson = createGson(Boolean.getBoolean("chess.compactGames"));
             System.out.println("TEAM_TURN: Server - Gson instance created");
+            // Games are stored in binary; this reads rows stored as JSON before that
+            Gson storageGson = createGson(true);
 
             // Create MySQL DAOs
             UserDAO userDAO = new MySQLUserDAO();
-            GameDAO gameDAO = new MySQLGameDAO(gson);
+            // Moves are served from memory and written to MySQL in the background
+            gameDAO = new CachingGameDAO(new MySQLGameDAO(storageGson));
             AuthDAO authDAO = new MySQLAuthDAO();
 
             UserService userService = new UserService(userDAO, authDAO);
             GameService gameService = new GameService(gameDAO, authDAO);
             ClearService clearService = new ClearService(userDAO, gameDAO, authDAO);
+            analysisService = new AnalysisService(gameDAO, authDAO, openBook());
 
             userHandler = new UserHandler(userService);
             gameHandler = new GameHandler(gameService, gson);
             clearHandler = new ClearHandler(clearService);
-            webSocketHandler = new WebSocketHandler(gameService, authDAO, gson, gameDAO);
+            analysisHandler = new AnalysisHandler(analysisService, gson);
+            webSocketHandler = new WebSocketHandler(gameService, authDAO, gson, gameDAO, analysisService);
             System.out.println("TEAM_TURN: Server - All handlers initialized with Gson instance");
         } catch (DataAccessException e) {
             throw new RuntimeException("Failed to initialize server: " + e.getMessage(), e);
         }
     }
 
+    private static Gson createGson(boolean compactGames) {
+        return new GsonBuilder()
+                .registerTypeAdapter(ChessGame.class, new ChessGameAdapter(compactGames))
+                .registerTypeAdapter(ChessBoard.class, new ChessBoardAdapter())
+                .registerTypeAdapter(ChessPiece.class, new ChessPieceAdapter())
+                .create();
+    }
+
+    /**
+     * Maps the opening book named by the {@code chess.book} system property, if
+     * any. Analysis works without a book, so a missing or bad file is only
+     * reported.
+     */
+    private static OpeningBook openBook() {
+        String path = System.getProperty("chess.book");
+        if (path == null) {
+            return null;
+        }
+        try {
+            OpeningBook book = OpeningBook.open(Path.of(path));
+            System.out.println("Opening book loaded: " + book.size() + " entries from " + path);
+            return book;
+        } catch (IOException e) {
+            System.err.println("Could not open opening book " + path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
     public int run(int desiredPort) {
         Spark.port(desiredPort);
 
@@ -89,6 +129,8 @@ public class Server {
         Spark.post("/game", gameHandler::createGame);
         Spark.put("/game", gameHandler::joinGame);
 
+        Spark.post("/analysis", analysisHandler::analyze);
+
         Spark.delete("/db", clearHandler::clearApplication);
 
         // Catch-all handler for unmatched GET requests, but exclude /ws
@@ -114,7 +156,14 @@ public class Server {
     }
 
     public void stop() {
+        analysisService.shutdown();
         Spark.stop();
         Spark.awaitStop();
+        try {
+            gameDAO.close();
+        } catch (DataAccessException e) {
+            System.err.println("Failed to save pending game state: " + e.getMessage());
+        }
+        DatabaseManager.closePool();
     }
 }
@@ -0,0 +1,94 @@
+package server.handlers;
+
+import com.google.gson.Gson;
+import dataaccess.DataAccessException;
+import model.AnalysisData;
+import service.AnalysisService;
+import service.requests.AnalysisRequest;
+import spark.Request;
+import spark.Response;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+
+public class AnalysisHandler {
+    private static final Logger LOGGER = Logger.getLogger(AnalysisHandler.class.getName());
+    // Time allowed on top of the search budget for queueing and the rest of the request
+    static final long WAIT_MARGIN_MILLIS = 2_000;
+    private final AnalysisService analysisService;
+    private final Gson gson;
+
+    public AnalysisHandler(AnalysisService analysisService, Gson gson) {
+        this.analysisService = analysisService;
+        this.gson = gson;
+    }
+
+    /**
+     * POST /analysis with a body of {@code {"gameID": 1}} or {@code {"fen": "..."}}
+     * and an optional {@code "timeMillis"} budget
+     */
+    public Object analyze(Request req, Response res) {
+        LOGGER.info("Handling analyze request");
+        try {
+            String authToken = req.headers("authorization");
+            if (authToken != null && authToken.startsWith("Bearer ")) {
+                authToken = authToken.substring(7);
+            }
+
+            Map<?, ?> body = gson.fromJson(req.body(), Map.class);
+            if (body == null) {
+                res.status(400);
+                return gson.toJson(Map.of("message", "Error: bad request"));
+            }
+            Integer gameID = body.get("gameID") instanceof Number number ? number.intValue() : null;
+            String fen = body.get("fen") instanceof String text ? text : null;
+            Long timeMillis = body.get("timeMillis") instanceof Number number ? number.longValue() : null;
+
+            CompletableFuture<AnalysisData> pending =
+                    analysisService.analyze(new AnalysisRequest(authToken, gameID, fen, timeMillis));
+            AnalysisData analysis;
+            try {
+                analysis = pending.get(AnalysisService.timeBudget(timeMillis) + WAIT_MARGIN_MILLIS,
+                        TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Give the request thread back and stop the search nobody is waiting for
+                pending.cancel(true);
+                LOGGER.warning("Analysis timed out waiting for a thread");
+                res.status(503);
+                return gson.toJson(Map.of("message", "Error: analysis timed out, try again later"));
+            }
+            res.status(200);
+            return gson.toJson(analysis);
+        } catch (DataAccessException e) {
+            LOGGER.warning("DataAccessException in analyze: " + e.getMessage());
+            if (e.getMessage().contains("unauthorized")) {
+                res.status(401);
+            } else if (e.getMessage().contains("bad request")) {
+                res.status(400);
+            } else if (e.getMessage().contains("not found")) {
+                res.status(404);
+            } else if (e.getMessage().contains("busy")) {
+                res.status(503);
+            } else {
+                res.status(500);
+            }
+            return gson.toJson(Map.of("message", e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            res.status(503);
+            return gson.toJson(Map.of("message", "Error: analysis interrupted"));
+        } catch (ExecutionException e) {
+            LOGGER.severe("Analysis failed: " + e.getCause());
+            res.status(500);
+            return gson.toJson(Map.of("message", "Error: " + e.getCause().getMessage()));
+        } catch (Exception e) {
+            LOGGER.severe("Unexpected error in analyze: " + e.getMessage());
+            res.status(400);
+            return gson.toJson(Map.of("message", "Error: bad request"));
+        }
+    }
+}
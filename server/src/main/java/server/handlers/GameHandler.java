@@ -12,6 +12,7 @@ import model.GameData;
 import spark.Request;
 import spark.Response;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.logging.Logger;
 
@@ -136,14 +137,29 @@ public class GameHandler {
                 authToken = authToken.substring(7);
             }
             
-            ListGamesRequest request = new ListGamesRequest(authToken);
+            Integer after;
+            Integer limit;
+            try {
+                after = intQueryParam(req, "after");
+                limit = intQueryParam(req, "limit");
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid game list paging parameters");
+                res.status(400);
+                return gson.toJson(Map.of("message", "Error: bad request"));
+            }
+            ListGamesRequest request = new ListGamesRequest(authToken, after, limit,
+                    Boolean.parseBoolean(req.queryParams("open")), Boolean.parseBoolean(req.queryParams("active")));
             LOGGER.info("Calling gameService.listGames");
             ListGamesResult result = gameService.listGames(request);
             LOGGER.info("gameService.listGames returned result: " + result);
 
             res.status(200);
             LOGGER.info("Attempting to serialize games list");
-            Object responseBody = Map.of("games", result.games());
+            Map<String, Object> responseBody = new LinkedHashMap<>();
+            responseBody.put("games", result.games());
+            if (result.nextCursor() != null) {
+                responseBody.put("nextCursor", result.nextCursor());
+            }
             LOGGER.fine("Response body object: " + responseBody);
             return gson.toJson(responseBody);
         } catch (DataAccessException e) {
@@ -155,6 +171,11 @@ public class GameHandler {
         }
     }
 
+    private static Integer intQueryParam(Request req, String name) {
+        String value = req.queryParams(name);
+        return value == null || value.isBlank() ? null : Integer.valueOf(value.trim());
+    }
+
     public Object getGame(Request req, Response res) {
         LOGGER.info("Handling getGame request");
         LOGGER.info("Request path: " + req.pathInfo());
@@ -0,0 +1,151 @@
+package service;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.engine.Evaluator;
+import chess.engine.OpeningBook;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.Searcher;
+import chess.engine.TranspositionTable;
+import dataaccess.AuthDAO;
+import dataaccess.DataAccessException;
+import dataaccess.GameDAO;
+import model.AnalysisData;
+import model.GameData;
+import service.requests.AnalysisRequest;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Runs engine analysis of game positions.
+ * <p>
+ * Searches run on a small, bounded pool of their own rather than on the web
+ * server's request threads, so a burst of analysis requests queues up (and is
+ * turned away once the queue is full) instead of holding up moves and other
+ * gameplay traffic. Each worker keeps its own searcher; all of them share one
+ * transposition table and, if there is one, the opening book, which answers
+ * known opening positions without searching. Cancelling the returned future
+ * stops its search, or drops it from the queue if it has not started.
+ */
+public class AnalysisService {
+    private static final Logger LOGGER = Logger.getLogger(AnalysisService.class.getName());
+    public static final long DEFAULT_TIME_MILLIS = 1000;
+    public static final long MIN_TIME_MILLIS = 10;
+    public static final long MAX_TIME_MILLIS = 10_000;
+
+    private final GameDAO gameDAO;
+    private final AuthDAO authDAO;
+    private final ThreadPoolExecutor executor;
+    private final ThreadLocal<Searcher> searchers;
+
+    public AnalysisService(GameDAO gameDAO, AuthDAO authDAO, OpeningBook book) {
+        this(gameDAO, authDAO, book, Math.max(1, Runtime.getRuntime().availableProcessors() / 2), 32, 64);
+    }
+
+    /**
+     * @param book           the opening book to consult first, or null
+     * @param threads        the number of searches that may run at once
+     * @param queueCapacity  the number of searches that may wait for a thread
+     * @param tableMegabytes the size of the shared transposition table
+     */
+    public AnalysisService(GameDAO gameDAO, AuthDAO authDAO, OpeningBook book, int threads, int queueCapacity,
+                           int tableMegabytes) {
+        this.gameDAO = gameDAO;
+        this.authDAO = authDAO;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "analysis-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    // Gameplay requests come first when the cores are busy
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+        TranspositionTable table = new TranspositionTable(tableMegabytes);
+        Evaluator evaluator = new Evaluator();
+        this.searchers = ThreadLocal.withInitial(() -> new Searcher(evaluator, table, book));
+    }
+
+    /**
+     * Queues a position for analysis
+     *
+     * @param request the game or FEN to analyze and the time budget, which is
+     *                clamped to between {@link #MIN_TIME_MILLIS} and {@link #MAX_TIME_MILLIS}
+     * @return the analysis, completed when the search finishes; cancelling it stops the search
+     * @throws DataAccessException if the caller is not authorized, the request
+     *                             names no valid position, or the analysis queue is full
+     */
+    public CompletableFuture<AnalysisData> analyze(AnalysisRequest request) throws DataAccessException {
+        if (authDAO.getAuth(request.authToken()) == null) {
+            throw new DataAccessException("Error: unauthorized");
+        }
+        ChessGame game = position(request);
+        long timeMillis = timeBudget(request.timeMillis());
+
+        AtomicBoolean stop = new AtomicBoolean();
+        try {
+            CompletableFuture<AnalysisData> analysis =
+                    CompletableFuture.supplyAsync(() -> analyze(game, timeMillis, stop), executor);
+            analysis.whenComplete((result, e) -> {
+                if (analysis.isCancelled()) {
+                    stop.set(true);
+                }
+            });
+            return analysis;
+        } catch (RejectedExecutionException e) {
+            LOGGER.warning("Analysis queue full, rejecting request");
+            throw new DataAccessException("Error: analysis is busy, try again later");
+        }
+    }
+
+    /**
+     * @return the search time a request gets, its own budget clamped to
+     * between {@link #MIN_TIME_MILLIS} and {@link #MAX_TIME_MILLIS}
+     */
+    public static long timeBudget(Long requestedMillis) {
+        return requestedMillis == null ? DEFAULT_TIME_MILLIS
+                : Math.max(MIN_TIME_MILLIS, Math.min(MAX_TIME_MILLIS, requestedMillis));
+    }
+
+    private ChessGame position(AnalysisRequest request) throws DataAccessException {
+        if (request.fen() != null) {
+            try {
+                return Fen.parse(request.fen());
+            } catch (IllegalArgumentException e) {
+                throw new DataAccessException("Error: bad request - " + e.getMessage());
+            }
+        }
+        if (request.gameID() == null) {
+            throw new DataAccessException("Error: bad request - a gameID or fen is required");
+        }
+        GameData game = gameDAO.getGame(request.gameID());
+        if (game == null) {
+            throw new DataAccessException("Error: game not found");
+        }
+        // The stored game may change while the search waits for a thread
+        return new ChessGame(game.game());
+    }
+
+    private AnalysisData analyze(ChessGame game, long timeMillis, AtomicBoolean stop) {
+        SearchResult result = searchers.get().search(game, SearchLimits.time(timeMillis), stop);
+        int sign = game.getTeamTurn() == ChessGame.TeamColor.WHITE ? 1 : -1;
+        return new AnalysisData(Fen.toFen(game), result.bestMove(), result.principalVariation(),
+                sign * result.score(), result.isMate() ? sign * result.mateInMoves() : null,
+                result.fromBook(), result.depth(), result.nodes(), TimeUnit.NANOSECONDS.toMillis(result.elapsedNanos()));
+    }
+
+    /**
+     * Stops accepting analysis and abandons queued requests
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -4,8 +4,10 @@ import chess.ChessGame;
 import dataaccess.AuthDAO;
 import dataaccess.DataAccessException;
 import dataaccess.GameDAO;
+import dataaccess.GameQuery;
 import model.AuthData;
 import model.GameData;
+import model.GameSummary;
 import service.requests.CreateGameRequest;
 import service.requests.JoinGameRequest;
 import service.requests.ListGamesRequest;
@@ -18,6 +20,8 @@ import java.util.logging.Logger;
 
 public class GameService {
     private static final Logger LOGGER = Logger.getLogger(GameService.class.getName());
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 500;
     private final GameDAO gameDAO;
     private final AuthDAO authDAO;
 
@@ -105,11 +109,21 @@ public class GameService {
         }
         LOGGER.info("Auth token valid for user: " + authData.username() + " for listing games.");
 
-        LOGGER.info("Calling gameDAO.listGames()");
-        List<GameData> games = gameDAO.listGames();
-        LOGGER.info("gameDAO.listGames() returned " + games.size() + " games.");
-
-        return new ListGamesResult(games);
+        Integer limit = request.limit();
+        if (limit != null && limit < 1) {
+            throw new DataAccessException("Error: bad request");
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+
+        // One game past the page tells whether there is another page
+        List<GameSummary> games = gameDAO.listGameSummaries(new GameQuery(request.afterGameID(), pageSize + 1,
+                request.openSeatsOnly(), request.activeOnly()));
+        LOGGER.info("gameDAO.listGameSummaries() returned " + games.size() + " games.");
+        if (games.size() <= pageSize) {
+            return new ListGamesResult(games);
+        }
+        List<GameSummary> page = games.subList(0, pageSize);
+        return new ListGamesResult(List.copyOf(page), page.get(pageSize - 1).gameID());
     }
 
     public GameData getGame(String authToken, int gameID) throws DataAccessException {
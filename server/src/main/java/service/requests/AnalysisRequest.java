@@ -0,0 +1,8 @@
+package service.requests;
+
+/**
+ * A request to analyze either a stored game's current position or a position
+ * given as FEN
+ */
+public record AnalysisRequest(String authToken, Integer gameID, String fen, Long timeMillis) {
+}
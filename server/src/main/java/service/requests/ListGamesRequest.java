@@ -1,4 +1,14 @@
 package service.requests;
 
-public record ListGamesRequest(String authToken) {
+/**
+ * @param afterGameID   list only games after this one, the previous page's cursor; null for the first page
+ * @param limit         the most games to list, or null for the default page size
+ * @param openSeatsOnly list only games with a seat still free
+ * @param activeOnly    list only games that are still being played
+ */
+public record ListGamesRequest(String authToken, Integer afterGameID, Integer limit,
+                               boolean openSeatsOnly, boolean activeOnly) {
+    public ListGamesRequest(String authToken) {
+        this(authToken, null, null, false, false);
+    }
 }
@@ -1,7 +1,13 @@
 package service.results;
 
-import model.GameData;
+import model.GameSummary;
 import java.util.List;
 
-public record ListGamesResult(List<GameData> games) {
+/**
+ * @param nextCursor the afterGameID for the next page, or null if this is the last one
+ */
+public record ListGamesResult(List<GameSummary> games, Integer nextCursor) {
+    public ListGamesResult(List<GameSummary> games) {
+        this(games, null);
+    }
 }
@@ -14,7 +14,9 @@ import model.AuthData;
 import model.GameData;
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.annotations.*;
+import service.AnalysisService;
 import service.GameService;
+import service.requests.AnalysisRequest;
 import websocket.commands.UserGameCommand;
 import websocket.messages.ServerMessage;
 import chess.InvalidMoveException;
@@ -29,14 +31,17 @@ public class WebSocketHandler {
     private final AuthDAO authDAO;
     private final Gson gson;
     private final GameDAO gameDAO;
+    private final AnalysisService analysisService;
     // Map of gameID to Map of authToken to Session
     private final Map<Integer, Map<String, Session>> gameSessions = new ConcurrentHashMap<>();
 
-    public WebSocketHandler(GameService gameService, AuthDAO authDAO, Gson gson, GameDAO gameDAO) {
+    public WebSocketHandler(GameService gameService, AuthDAO authDAO, Gson gson, GameDAO gameDAO,
+                            AnalysisService analysisService) {
         this.gameService = gameService;
         this.authDAO = authDAO;
         this.gson = gson;  // Use the passed-in Gson instance that already has the adapters registered
         this.gameDAO = gameDAO;  // Initialize GameDAO field
+        this.analysisService = analysisService;
     }
 
     @OnWebSocketConnect
@@ -64,7 +69,6 @@ public class WebSocketHandler {
         try {
             UserGameCommand command = gson.fromJson(message, UserGameCommand.class);
             String authToken = command.getAuthToken();
-            int gameID = command.getGameID();
 
             System.out.println("WEBSOCKET: Command type: " + command.getCommandType());
 
@@ -75,6 +79,13 @@ public class WebSocketHandler {
                 return;
             }
 
+            // Analysis needs no game session and may name a position instead of a game
+            if (command.getCommandType() == UserGameCommand.CommandType.ANALYZE) {
+                handleAnalyze(session, authToken, command);
+                return;
+            }
+            int gameID = command.getGameID();
+
             // Get or create game sessions map
             Map<String, Session> sessions = gameSessions.computeIfAbsent(gameID, k -> new ConcurrentHashMap<>());
 
@@ -186,22 +197,37 @@ public class WebSocketHandler {
                 broadcastMessage(gameID, null, gson.toJson(gameOverNotification));
             }
             // Only send check notifications if the game is not over
-            else if (chessGame.getGameState() == ChessGame.GameState.ACTIVE) {
-                if (chessGame.isInCheck(ChessGame.TeamColor.WHITE)) {
-                    ServerMessage checkNotification = new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION, 
-                        "White is in check");
-                    broadcastMessage(gameID, null, gson.toJson(checkNotification));
-                } else if (chessGame.isInCheck(ChessGame.TeamColor.BLACK)) {
-                    ServerMessage checkNotification = new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION, 
-                        "Black is in check");
-                    broadcastMessage(gameID, null, gson.toJson(checkNotification));
-                }
+            else if (chessGame.getGameState() == ChessGame.GameState.ACTIVE
+                    && chessGame.getStatus() == ChessGame.Status.CHECK) {
+                String team = chessGame.getTeamTurn() == ChessGame.TeamColor.WHITE ? "White" : "Black";
+                ServerMessage checkNotification = new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION, 
+                    team + " is in check");
+                broadcastMessage(gameID, null, gson.toJson(checkNotification));
             }
         } catch (DataAccessException e) {
             sendError(session, "Error: " + e.getMessage());
         }
     }
 
+    private void handleAnalyze(Session session, String authToken, UserGameCommand command) {
+        AnalysisRequest request = new AnalysisRequest(authToken, command.getGameID(), command.getFen(),
+                command.getTimeMillis());
+        try {
+            // Reply from the analysis thread when the search is done, not from this one
+            analysisService.analyze(request).whenComplete((analysis, error) -> {
+                if (error != null) {
+                    Throwable cause = error.getCause() != null ? error.getCause() : error;
+                    sendError(session, "Error: analysis failed - " + cause.getMessage());
+                } else {
+                    ServerMessage analysisMessage = new ServerMessage(ServerMessage.ServerMessageType.ANALYSIS, analysis);
+                    sendMessage(session, gson.toJson(analysisMessage));
+                }
+            });
+        } catch (DataAccessException e) {
+            sendError(session, e.getMessage());
+        }
+    }
+
     private void handleLeave(Session session, String authToken, int gameID, Map<String, Session> sessions) {
         try {
             // Get game data
@@ -308,8 +334,11 @@ public class WebSocketHandler {
     }
 
     private void sendMessage(Session session, String message) {
+        // Analysis replies arrive from other threads, and a session can only send one message at a time
         try {
-            session.getRemote().sendString(message);
+            synchronized (session) {
+                session.getRemote().sendString(message);
+            }
         } catch (IOException e) {
             System.err.println("Error sending message: " + e.getMessage());
         }
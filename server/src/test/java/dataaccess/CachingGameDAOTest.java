@@ -0,0 +1,138 @@
+package dataaccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import model.GameData;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingGameDAOTest {
+    private CountingGameDAO stored;
+    private CachingGameDAO gameDAO;
+    private int gameID;
+
+    @BeforeEach
+    void setUp() throws DataAccessException {
+        stored = new CountingGameDAO();
+        // Long enough that only explicit flushes write anything
+        gameDAO = new CachingGameDAO(stored, 60_000);
+        gameID = gameDAO.createGame(new GameData(0, null, null, "cached", new ChessGame()));
+    }
+
+    @AfterEach
+    void tearDown() throws DataAccessException {
+        gameDAO.close();
+    }
+
+    @Test
+    @DisplayName("Positive: State changes are served from memory and written once per flush")
+    void coalescesStateWrites() throws Exception {
+        ChessGame game = gameDAO.getGame(gameID).game();
+        game.makeMove(move(2, 5, 4, 5));
+        gameDAO.updateGameState(gameID, game);
+        game.makeMove(move(7, 5, 5, 5));
+        gameDAO.updateGameState(gameID, game);
+
+        assertEquals(0, stored.stateWrites);
+        assertEquals(game, gameDAO.getGame(gameID).game());
+        assertEquals(new ChessGame(), stored.getGame(gameID).game());
+
+        gameDAO.flush();
+        assertEquals(1, stored.stateWrites);
+        assertEquals(game, stored.getGame(gameID).game());
+        assertEquals(0, gameDAO.pendingWrites());
+    }
+
+    @Test
+    @DisplayName("Positive: Callers get independent copies")
+    void handsOutSnapshots() throws Exception {
+        ChessGame first = gameDAO.getGame(gameID).game();
+        first.makeMove(move(2, 5, 4, 5));
+
+        assertEquals(new ChessGame(), gameDAO.getGame(gameID).game());
+        gameDAO.updateGameState(gameID, first);
+        first.makeMove(move(7, 5, 5, 5));
+        assertEquals(ChessGame.TeamColor.BLACK, gameDAO.getGame(gameID).game().getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("Positive: Joining keeps unwritten moves and close writes them out")
+    void playerUpdatesKeepPendingState() throws Exception {
+        ChessGame game = gameDAO.getGame(gameID).game();
+        game.makeMove(move(2, 5, 4, 5));
+        gameDAO.updateGameState(gameID, game);
+
+        gameDAO.updateGame(gameID, "white", null);
+        GameData joined = gameDAO.getGame(gameID);
+        assertEquals("white", joined.whiteUsername());
+        assertEquals(game, joined.game());
+
+        game.makeMove(move(7, 5, 5, 5));
+        gameDAO.updateGameState(gameID, game);
+        gameDAO.close();
+        assertEquals(game, stored.getGame(gameID).game());
+    }
+
+    @Test
+    @DisplayName("Positive: Idle games are dropped unless unwritten, and reloaded on next use")
+    void evictsIdleGames() throws Exception {
+        CachingGameDAO idleCache = new CachingGameDAO(stored, 60_000, 0);
+        try {
+            int idleID = gameDAO.createGame(new GameData(0, null, null, "idle", new ChessGame()));
+            idleCache.getGame(gameID);
+            ChessGame game = idleCache.getGame(idleID).game();
+            game.makeMove(move(2, 5, 4, 5));
+            idleCache.updateGameState(idleID, game);
+            int loads = stored.loads;
+
+            idleCache.evictIdle();
+            assertEquals(1, idleCache.cachedGames());
+            assertEquals(game, idleCache.getGame(idleID).game());
+            assertEquals(loads, stored.loads);
+
+            assertNotNull(idleCache.getGame(gameID));
+            assertEquals(loads + 1, stored.loads);
+
+            idleCache.flush();
+            idleCache.evictIdle();
+            assertEquals(0, idleCache.cachedGames());
+            assertEquals(game, idleCache.getGame(idleID).game());
+        } finally {
+            idleCache.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Negative: Updating a missing game fails")
+    void updateMissingGame() {
+        assertThrows(DataAccessException.class, () -> gameDAO.updateGameState(gameID + 1, new ChessGame()));
+        assertEquals(0, gameDAO.pendingWrites());
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), null);
+    }
+
+    private static class CountingGameDAO extends MemoryGameDAO {
+        int stateWrites;
+        int loads;
+
+        @Override
+        public GameData getGame(int gameID) {
+            loads++;
+            GameData game = super.getGame(gameID);
+            // Stand in for deserialization: never share instances with the cache
+            return game == null ? null : new GameData(game.gameID(), game.whiteUsername(), game.blackUsername(),
+                    game.gameName(), new ChessGame(game.game()));
+        }
+
+        @Override
+        public void updateGameState(int gameID, ChessGame updatedGame) throws DataAccessException {
+            stateWrites++;
+            super.updateGameState(gameID, new ChessGame(updatedGame));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package dataaccess;
+
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolTest {
+    private final List<FakeConnection> opened = new ArrayList<>();
+    private ConnectionPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Positive: Closing a connection returns it for reuse")
+    void reusesReturnedConnection() throws SQLException {
+        pool = newPool(new ConnectionPool.Config(2, 0, 100, 60_000, 60_000, 1, 0));
+
+        try (Connection conn = pool.getConnection()) {
+            assertFalse(conn.isClosed());
+        }
+        try (Connection conn = pool.getConnection()) {
+            assertEquals(1, pool.metrics().active());
+        }
+
+        assertEquals(1, opened.size());
+        assertFalse(opened.get(0).closed);
+        assertEquals(2, pool.metrics().borrows());
+        assertEquals(1, pool.metrics().idle());
+    }
+
+    @Test
+    @DisplayName("Positive: Open transactions are rolled back on return")
+    void rollsBackOnReturn() throws SQLException {
+        pool = newPool(new ConnectionPool.Config(1, 0, 100, 60_000, 60_000, 1, 0));
+
+        Connection conn = pool.getConnection();
+        conn.setAutoCommit(false);
+        conn.close();
+        conn.close();
+
+        assertEquals(1, opened.get(0).rollbacks);
+        assertTrue(opened.get(0).autoCommit);
+        assertThrows(SQLException.class, conn::commit);
+    }
+
+    @Test
+    @DisplayName("Negative: Borrowing from an exhausted pool times out")
+    void timesOutWhenExhausted() throws SQLException {
+        pool = newPool(new ConnectionPool.Config(1, 0, 50, 60_000, 60_000, 1, 0));
+
+        try (Connection held = pool.getConnection()) {
+            assertThrows(SQLException.class, () -> pool.getConnection());
+        }
+
+        assertEquals(1, pool.metrics().timeouts());
+        assertTrue(pool.metrics().maxWaitMillis() >= 40);
+        pool.getConnection().close();
+    }
+
+    @Test
+    @DisplayName("Positive: Invalid and long-idle connections are replaced")
+    void discardsInvalidAndIdleConnections() throws SQLException {
+        pool = newPool(new ConnectionPool.Config(2, 0, 100, 0, 0, 1, 0));
+
+        pool.getConnection().close();
+        opened.get(0).valid = false;
+        pool.getConnection().close();
+        assertTrue(opened.get(0).closed);
+        assertEquals(2, opened.size());
+
+        pool.housekeep();
+        assertTrue(opened.get(1).closed);
+        assertEquals(0, pool.metrics().idle());
+        assertEquals(2, pool.metrics().closed());
+    }
+
+    private ConnectionPool newPool(ConnectionPool.Config config) {
+        return new ConnectionPool(() -> {
+            FakeConnection fake = new FakeConnection();
+            opened.add(fake);
+            return fake.proxy();
+        }, config);
+    }
+
+    private static class FakeConnection {
+        boolean closed;
+        boolean autoCommit = true;
+        boolean valid = true;
+        int rollbacks;
+
+        Connection proxy() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "close" -> {
+                            closed = true;
+                            yield null;
+                        }
+                        case "isClosed" -> closed;
+                        case "isValid" -> valid;
+                        case "getAutoCommit" -> autoCommit;
+                        case "setAutoCommit" -> {
+                            autoCommit = (Boolean) args[0];
+                            yield null;
+                        }
+                        case "rollback" -> {
+                            rollbacks++;
+                            yield null;
+                        }
+                        default -> null;
+                    });
+        }
+    }
+}
@@ -1,16 +1,26 @@
 package dataaccess;
 
 import model.GameData;
+import model.GameSummary;
 import model.UserData;
+import chess.ChessBoard;
 import chess.ChessGame;
 import chess.ChessMove;
 import chess.ChessPosition;
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
+import java.sql.SQLException;
 import java.util.List;
 import com.google.gson.Gson;
 
 public class MySQLGameDAOTest {
+    // Knights out and back
+    private static final ChessMove[] CYCLE = {
+        new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null),
+        new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null),
+        new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null),
+        new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null)
+    };
     private MySQLGameDAO gameDAO;
     private MySQLUserDAO userDAO;
     private Gson gson;
@@ -68,11 +78,31 @@ public class MySQLGameDAOTest {
         GameData gameData1 = new GameData(0, null, null, "Game 1", game1);
         GameData gameData2 = new GameData(0, null, null, "Game 2", game2);
         
-        gameDAO.createGame(gameData1);
-        gameDAO.createGame(gameData2);
+        int gameID1 = gameDAO.createGame(gameData1);
+        int gameID2 = gameDAO.createGame(gameData2);
         
-        List<GameData> games = gameDAO.listGames();
-        assertEquals(2, games.size());
+        List<GameSummary> games = gameDAO.listGameSummaries(new GameQuery(null, 10, false, false));
+        assertEquals(List.of(new GameSummary(gameID1, null, null, "Game 1"),
+                new GameSummary(gameID2, null, null, "Game 2")), games);
+    }
+
+    @Test
+    @DisplayName("Positive: List games by page, open seat and activity")
+    void listGameSummariesFilters() throws DataAccessException {
+        userDAO.createUser(new UserData("whitePlayer", "password", "email"));
+        userDAO.createUser(new UserData("blackPlayer", "password", "email"));
+        ChessGame resigned = new ChessGame();
+        resigned.setGameState(ChessGame.GameState.RESIGNED);
+        int full = gameDAO.createGame(new GameData(0, "whitePlayer", "blackPlayer", "Full", new ChessGame()));
+        int finished = gameDAO.createGame(new GameData(0, null, null, "Finished", new ChessGame()));
+        int open = gameDAO.createGame(new GameData(0, "whitePlayer", null, "Open", new ChessGame()));
+        gameDAO.updateGameState(finished, resigned);
+
+        assertEquals(List.of(full, finished), ids(gameDAO.listGameSummaries(new GameQuery(null, 2, false, false))));
+        assertEquals(List.of(open), ids(gameDAO.listGameSummaries(new GameQuery(finished, 2, false, false))));
+        assertEquals(List.of(finished, open), ids(gameDAO.listGameSummaries(new GameQuery(null, 10, true, false))));
+        assertEquals(List.of(full, open), ids(gameDAO.listGameSummaries(new GameQuery(null, 10, false, true))));
+        assertEquals(List.of(open), ids(gameDAO.listGameSummaries(new GameQuery(null, 10, true, true))));
     }
 
     @Test
@@ -145,6 +175,148 @@ public class MySQLGameDAOTest {
         
         assertNull(gameDAO.getGame(gameID1));
         assertNull(gameDAO.getGame(gameID2));
-        assertEquals(0, gameDAO.listGames().size());
+        assertTrue(gameDAO.listGameSummaries(new GameQuery(null, 10, false, false)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Positive: Moves are logged and replayed across snapshots")
+    void updateGameStateLogsMoves() throws DataAccessException, chess.InvalidMoveException {
+        ChessGame game = new ChessGame();
+        int gameID = gameDAO.createGame(new GameData(0, null, null, "Move Log", game));
+
+        // Past more than one snapshot interval
+        int plies = MySQLGameDAO.SNAPSHOT_INTERVAL + 6;
+        for (int ply = 0; ply < plies; ply++) {
+            game.makeMove(CYCLE[ply % CYCLE.length]);
+            gameDAO.updateGameState(gameID, game);
+        }
+        // Make the stored position differ from the start position
+        game.makeMove(CYCLE[0]);
+        gameDAO.updateGameState(gameID, game);
+
+        GameData loaded = gameDAO.getGame(gameID);
+        assertEquals(game, loaded.game());
+        assertEquals(plies + 1, loaded.game().getPly());
+        assertEquals(plies + 1, gameDAO.getMoveHistory(gameID).size());
+        assertEquals(CYCLE[1], gameDAO.getMoveHistory(gameID).get(1));
+
+        // Taking a move back rewrites the snapshot and trims the log
+        game.unmakeMove();
+        gameDAO.updateGameState(gameID, game);
+        assertEquals(game, gameDAO.getGame(gameID).game());
+        assertEquals(plies, gameDAO.getMoveHistory(gameID).size());
+    }
+
+    @Test
+    @DisplayName("Positive: Taking back several moves trims the log and play goes on from there")
+    void updateGameStateTrimsTakenBackMoves() throws DataAccessException, chess.InvalidMoveException {
+        ChessGame game = new ChessGame();
+        int gameID = gameDAO.createGame(new GameData(0, null, null, "Take Back", game));
+        for (int ply = 0; ply < 6; ply++) {
+            game.makeMove(CYCLE[ply % CYCLE.length]);
+            gameDAO.updateGameState(gameID, game);
+        }
+
+        game.unmakeMove();
+        game.unmakeMove();
+        game.unmakeMove();
+        gameDAO.updateGameState(gameID, game);
+        assertEquals(game, gameDAO.getGame(gameID).game());
+        assertEquals(3, gameDAO.getMoveHistory(gameID).size());
+        assertArrayEquals(new int[]{3, 3}, storedPlies(gameID));
+
+        ChessMove reply = new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null);
+        game.makeMove(reply);
+        gameDAO.updateGameState(gameID, game);
+        assertEquals(game, gameDAO.getGame(gameID).game());
+        assertEquals(List.of(CYCLE[0], CYCLE[1], CYCLE[2], reply), gameDAO.getMoveHistory(gameID));
+        assertArrayEquals(new int[]{4, 3}, storedPlies(gameID));
+    }
+
+    @Test
+    @DisplayName("Positive: The game state is snapshotted once every interval")
+    void updateGameStateSnapshotsAtInterval() throws DataAccessException, chess.InvalidMoveException {
+        ChessGame game = new ChessGame();
+        int gameID = gameDAO.createGame(new GameData(0, null, null, "Snapshots", game));
+        int interval = MySQLGameDAO.SNAPSHOT_INTERVAL;
+        for (int ply = 0; ply < interval - 1; ply++) {
+            game.makeMove(CYCLE[ply % CYCLE.length]);
+            gameDAO.updateGameState(gameID, game);
+        }
+        assertArrayEquals(new int[]{interval - 1, 0}, storedPlies(gameID));
+
+        game.makeMove(CYCLE[(interval - 1) % CYCLE.length]);
+        gameDAO.updateGameState(gameID, game);
+        assertArrayEquals(new int[]{interval, interval}, storedPlies(gameID));
+
+        game.makeMove(CYCLE[interval % CYCLE.length]);
+        gameDAO.updateGameState(gameID, game);
+        assertArrayEquals(new int[]{interval + 1, interval}, storedPlies(gameID));
+        assertEquals(game, gameDAO.getGame(gameID).game());
+        assertEquals(interval + 1, gameDAO.getMoveHistory(gameID).size());
+    }
+
+    @Test
+    @DisplayName("Positive: A position set up without its moves replaces the log")
+    void updateGameStateSnapshotsSetUpPosition() throws DataAccessException, chess.InvalidMoveException {
+        ChessGame game = new ChessGame();
+        int gameID = gameDAO.createGame(new GameData(0, null, null, "Set Up", game));
+        game.makeMove(CYCLE[0]);
+        game.makeMove(CYCLE[1]);
+        gameDAO.updateGameState(gameID, game);
+
+        // Two unstored moves, then a board set up directly: its moves are no longer known
+        game.makeMove(CYCLE[2]);
+        game.makeMove(CYCLE[3]);
+        game.setBoard(new ChessBoard(game.getBoard()));
+        game.makeMove(CYCLE[0]);
+        gameDAO.updateGameState(gameID, game);
+
+        GameData loaded = gameDAO.getGame(gameID);
+        assertEquals(game, loaded.game());
+        assertEquals(5, loaded.game().getPly());
+        assertEquals(List.of(CYCLE[0]), gameDAO.getMoveHistory(gameID));
+        assertArrayEquals(new int[]{5, 5}, storedPlies(gameID));
+    }
+
+    @Test
+    @DisplayName("Negative: A gap in the move log fails the load")
+    void getGameRejectsBrokenMoveLog() throws DataAccessException, chess.InvalidMoveException {
+        ChessGame game = new ChessGame();
+        int gameID = gameDAO.createGame(new GameData(0, null, null, "Broken Log", game));
+        for (int ply = 0; ply < 3; ply++) {
+            game.makeMove(CYCLE[ply % CYCLE.length]);
+            gameDAO.updateGameState(gameID, game);
+        }
+
+        try (var conn = DatabaseManager.getConnection();
+             var preparedStatement = conn.prepareStatement("DELETE FROM game_move WHERE game_id = ? AND ply = 1")) {
+            preparedStatement.setInt(1, gameID);
+            assertEquals(1, preparedStatement.executeUpdate());
+        } catch (SQLException e) {
+            throw new DataAccessException("failed to delete a logged move", e);
+        }
+
+        assertThrows(DataAccessException.class, () -> gameDAO.getGame(gameID));
+    }
+
+    private static List<Integer> ids(List<GameSummary> games) {
+        return games.stream().map(GameSummary::gameID).toList();
+    }
+
+    /**
+     * @return the game row's ply and snapshot_ply
+     */
+    private static int[] storedPlies(int gameID) throws DataAccessException {
+        try (var conn = DatabaseManager.getConnection();
+             var preparedStatement = conn.prepareStatement("SELECT ply, snapshot_ply FROM game WHERE id = ?")) {
+            preparedStatement.setInt(1, gameID);
+            try (var rs = preparedStatement.executeQuery()) {
+                assertTrue(rs.next());
+                return new int[]{rs.getInt("ply"), rs.getInt("snapshot_ply")};
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("failed to read game plies", e);
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+package service;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import dataaccess.*;
+import model.AnalysisData;
+import model.AuthData;
+import model.GameData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import service.requests.AnalysisRequest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnalysisServiceTest {
+    private AnalysisService analysisService;
+    private GameDAO gameDAO;
+    private String validAuthToken;
+
+    @BeforeEach
+    public void setUp() throws DataAccessException {
+        gameDAO = new MemoryGameDAO();
+        AuthDAO authDAO = new MemoryAuthDAO();
+        analysisService = new AnalysisService(gameDAO, authDAO, null, 1, 1, 1);
+
+        validAuthToken = "valid-auth-token";
+        authDAO.createAuth(new AuthData(validAuthToken, "testUser"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        analysisService.shutdown();
+    }
+
+    @Test
+    public void analyzeFenPositive() throws Exception {
+        // Back-rank mate: Ra1-a8
+        AnalysisData analysis = analysisService.analyze(new AnalysisRequest(validAuthToken, null,
+                "6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", 200L)).get();
+
+        assertEquals(new ChessMove(ChessPosition.of(1, 1), ChessPosition.of(8, 1), null), analysis.bestMove());
+        assertEquals(1, analysis.mateIn());
+        assertTrue(analysis.score() > 0);
+        assertFalse(analysis.principalVariation().isEmpty());
+    }
+
+    @Test
+    public void analyzeGamePositive() throws Exception {
+        int gameID = gameDAO.createGame(new GameData(0, null, null, "Test Game", new ChessGame()));
+
+        AnalysisData analysis = analysisService.analyze(new AnalysisRequest(validAuthToken, gameID, null, 50L)).get();
+
+        assertNotNull(analysis.bestMove());
+        assertTrue(analysis.depth() >= 1);
+        assertEquals(new ChessGame(), gameDAO.getGame(gameID).game());
+    }
+
+    @Test
+    public void cancelStopsSearch() throws Exception {
+        CompletableFuture<AnalysisData> slow = analysisService.analyze(new AnalysisRequest(validAuthToken, null,
+                "r3k2r/pPppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPpP/R3K2R w - - 0 1", AnalysisService.MAX_TIME_MILLIS));
+        Thread.sleep(100);
+        slow.cancel(true);
+
+        // The only worker is free again long before the cancelled search's budget is up
+        AnalysisData next = analysisService.analyze(new AnalysisRequest(validAuthToken, null,
+                "6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", 50L)).get(3, TimeUnit.SECONDS);
+        assertNotNull(next.bestMove());
+    }
+
+    @Test
+    public void analyzeNegative() {
+        assertThrows(DataAccessException.class, () ->
+                analysisService.analyze(new AnalysisRequest("invalid-token", null, "8/8/8/8/8/8/8/K6k w - - 0 1", 50L)));
+        assertThrows(DataAccessException.class, () ->
+                analysisService.analyze(new AnalysisRequest(validAuthToken, null, "not a fen", 50L)));
+        assertThrows(DataAccessException.class, () ->
+                analysisService.analyze(new AnalysisRequest(validAuthToken, null, null, 50L)));
+    }
+}
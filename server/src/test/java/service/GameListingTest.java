@@ -0,0 +1,77 @@
+package service;
+
+import chess.ChessGame;
+import dataaccess.DataAccessException;
+import dataaccess.MemoryAuthDAO;
+import dataaccess.MemoryGameDAO;
+import model.AuthData;
+import model.GameData;
+import model.GameSummary;
+import org.junit.jupiter.api.*;
+import service.requests.ListGamesRequest;
+import service.results.ListGamesResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameListingTest {
+    private static final String AUTH_TOKEN = "listing-token";
+    private MemoryGameDAO gameDAO;
+    private GameService gameService;
+
+    @BeforeEach
+    void setUp() throws DataAccessException {
+        gameDAO = new MemoryGameDAO();
+        MemoryAuthDAO authDAO = new MemoryAuthDAO();
+        authDAO.createAuth(new AuthData(AUTH_TOKEN, "lister"));
+        gameService = new GameService(gameDAO, authDAO);
+    }
+
+    @Test
+    @DisplayName("Positive: Following the cursor lists every game once, in order")
+    void pagesThroughGames() throws DataAccessException {
+        for (int i = 0; i < 7; i++) {
+            gameDAO.createGame(new GameData(0, null, null, "game " + i, new ChessGame()));
+        }
+
+        List<GameSummary> listed = new ArrayList<>();
+        Integer cursor = null;
+        int pages = 0;
+        do {
+            ListGamesResult page = gameService.listGames(new ListGamesRequest(AUTH_TOKEN, cursor, 3, false, false));
+            listed.addAll(page.games());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(7, listed.size());
+        for (int i = 0; i < 7; i++) {
+            assertEquals("game " + i, listed.get(i).gameName());
+        }
+    }
+
+    @Test
+    @DisplayName("Positive: Open seat and active filters leave out full and finished games")
+    void filtersGames() throws DataAccessException {
+        ChessGame finished = new ChessGame();
+        finished.setGameState(ChessGame.GameState.RESIGNED);
+        gameDAO.createGame(new GameData(0, "white", "black", "full", new ChessGame()));
+        gameDAO.createGame(new GameData(0, "white", null, "finished", finished));
+        int open = gameDAO.createGame(new GameData(0, null, "black", "open", new ChessGame()));
+
+        List<GameSummary> games = gameService.listGames(new ListGamesRequest(AUTH_TOKEN, null, null, true, true))
+                .games();
+        assertEquals(List.of(new GameSummary(open, null, "black", "open")), games);
+        assertEquals(3, gameService.listGames(new ListGamesRequest(AUTH_TOKEN)).games().size());
+    }
+
+    @Test
+    @DisplayName("Negative: A page size below one is rejected")
+    void rejectsEmptyPage() {
+        assertThrows(DataAccessException.class,
+                () -> gameService.listGames(new ListGamesRequest(AUTH_TOKEN, null, 0, false, false)));
+    }
+}
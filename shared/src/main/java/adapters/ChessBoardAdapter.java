@@ -15,7 +15,7 @@ public class ChessBoardAdapter implements JsonSerializer<ChessBoard>, JsonDeseri
         for (int row = 0; row < 8; row++) {
             JsonArray rowArray = new JsonArray();
             for (int col = 0; col < 8; col++) {
-                ChessPiece piece = src.getPiece(new ChessPosition(row + 1, col + 1));
+                ChessPiece piece = src.getPiece(ChessPosition.of(row + 1, col + 1));
                 if (piece != null) {
                     rowArray.add(context.serialize(piece));
                 } else {
@@ -41,7 +41,7 @@ public class ChessBoardAdapter implements JsonSerializer<ChessBoard>, JsonDeseri
                 JsonElement pieceElement = rowArray.get(col);
                 if (!pieceElement.isJsonNull()) {
                     ChessPiece piece = context.deserialize(pieceElement, ChessPiece.class);
-                    board.addPiece(new ChessPosition(row + 1, col + 1), piece);
+                    board.addPiece(ChessPosition.of(row + 1, col + 1), piece);
                 }
             }
         }
@@ -20,7 +20,7 @@ public class ChessPieceAdapter implements JsonSerializer<ChessPiece>, JsonDeseri
         String pieceType = jsonObject.get("type").getAsString();
         String teamColor = jsonObject.get("teamColor").getAsString();
         
-        return new ChessPiece(
+        return ChessPiece.of(
             ChessGame.TeamColor.valueOf(teamColor),
             ChessPiece.PieceType.valueOf(pieceType)
         );
@@ -0,0 +1,149 @@
+package chess;
+
+/**
+ * Square indexing and attack helpers for the bitboard board representation.
+ * <p>
+ * Squares are numbered 0..63 with a1 = 0, h1 = 7 and h8 = 63, so a square is
+ * {@code (row - 1) * 8 + (column - 1)} in the 1-based coordinates used by
+ * {@link ChessPosition}.
+ */
+public final class Bitboards {
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = leaperAttacks(square, new int[][]{
+                    {2, 1}, {1, 2}, {-1, 2}, {-2, 1}, {-2, -1}, {-1, -2}, {1, -2}, {2, -1}});
+            KING_ATTACKS[square] = leaperAttacks(square, new int[][]{
+                    {1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}});
+            PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][square] = leaperAttacks(square, new int[][]{{1, -1}, {1, 1}});
+            PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][square] = leaperAttacks(square, new int[][]{{-1, -1}, {-1, 1}});
+            fillLines(square);
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    public static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    public static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * @return the 1-based row of the square
+     */
+    public static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return the 1-based column of the square
+     */
+    public static int col(int square) {
+        return (square & 7) + 1;
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static boolean onBoard(int row, int col) {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @return the squares a pawn of the given color standing on {@code square} attacks
+     */
+    public static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        return SlidingAttacks.rookAttacks(square, occupied);
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        return SlidingAttacks.bishopAttacks(square, occupied);
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return SlidingAttacks.rookAttacks(square, occupied) | SlidingAttacks.bishopAttacks(square, occupied);
+    }
+
+    /**
+     * @return the squares strictly between two squares on a shared rank, file or
+     * diagonal, or an empty set if they are not aligned
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return every square of the rank, file or diagonal through both squares
+     * (edge to edge), or an empty set if they are not aligned
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    private static void fillLines(int square) {
+        for (int dRow = -1; dRow <= 1; dRow++) {
+            for (int dCol = -1; dCol <= 1; dCol++) {
+                if (dRow == 0 && dCol == 0) {
+                    continue;
+                }
+                long line = bit(square) | ray(square, dRow, dCol) | ray(square, -dRow, -dCol);
+                long between = 0L;
+                int row = row(square) + dRow;
+                int col = col(square) + dCol;
+                while (onBoard(row, col)) {
+                    int target = square(row, col);
+                    BETWEEN[square][target] = between;
+                    LINE[square][target] = line;
+                    between |= bit(target);
+                    row += dRow;
+                    col += dCol;
+                }
+            }
+        }
+    }
+
+    private static long ray(int square, int dRow, int dCol) {
+        long ray = 0L;
+        for (int row = row(square) + dRow, col = col(square) + dCol; onBoard(row, col); row += dRow, col += dCol) {
+            ray |= bit(square(row, col));
+        }
+        return ray;
+    }
+
+    private static long leaperAttacks(int square, int[][] offsets) {
+        long attacks = 0L;
+        for (int[] offset : offsets) {
+            int row = row(square) + offset[0];
+            int col = col(square) + offset[1];
+            if (onBoard(row, col)) {
+                attacks |= bit(square(row, col));
+            }
+        }
+        return attacks;
+    }
+}
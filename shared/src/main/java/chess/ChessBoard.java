@@ -1,7 +1,6 @@
 package chess;
 
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
@@ -10,10 +9,48 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessBoard {
-    private ChessPiece[][] squares;
+    private static final int PIECE_TYPES = ChessPiece.PieceType.values().length;
+
+    // Square-indexed lookup for getPiece, kept in step with the bitboards below
+    private final ChessPiece[] mailbox = new ChessPiece[64];
+    // One set per color and piece type, indexed by color * PIECE_TYPES + type
+    private final long[] pieces = new long[2 * PIECE_TYPES];
+    private final long[] colors = new long[2];
+    private long occupied;
+    // Squares attacked by the piece standing on each square, kept current by addPiece
+    private final long[] attacksFrom = new long[64];
+    private final long[] attackMaps = new long[2];
+    private boolean attackMapsStale;
+    // Square of each team's king, or -1 when that team has none on the board
+    private final int[] kingSquares = {-1, -1};
+    // Zobrist key of the pieces on the board, see Zobrist
+    private long positionKey;
+    // Sums of PieceSquareTables values over the board, from white's point of view
+    private int middlegameScore;
+    private int endgameScore;
+    private int phase;
 
     public ChessBoard() {
-        squares = new ChessPiece[8][8];
+    }
+
+    /**
+     * Creates an independent copy of a board
+     *
+     * @param other the board to copy
+     */
+    public ChessBoard(ChessBoard other) {
+        System.arraycopy(other.mailbox, 0, mailbox, 0, mailbox.length);
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.colors, 0, colors, 0, colors.length);
+        occupied = other.occupied;
+        System.arraycopy(other.attacksFrom, 0, attacksFrom, 0, attacksFrom.length);
+        System.arraycopy(other.attackMaps, 0, attackMaps, 0, attackMaps.length);
+        attackMapsStale = other.attackMapsStale;
+        System.arraycopy(other.kingSquares, 0, kingSquares, 0, kingSquares.length);
+        positionKey = other.positionKey;
+        middlegameScore = other.middlegameScore;
+        endgameScore = other.endgameScore;
+        phase = other.phase;
     }
 
     /**
@@ -23,7 +60,114 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        this.squares[position.getRow() - 1][position.getColumn() - 1] = piece;
+        addPiece(Bitboards.square(position), piece);
+    }
+
+    /**
+     * Adds a chess piece to the chessboard, replacing whatever was on the square
+     *
+     * @param square the square index (see {@link Bitboards}) to add the piece to
+     * @param piece  the piece to add, or null to empty the square
+     */
+    public void addPiece(int square, ChessPiece piece) {
+        if (piece != null) {
+            piece = ChessPiece.of(piece.getTeamColor(), piece.getPieceType());
+        }
+        ChessPiece previous = mailbox[square];
+        long bit = Bitboards.bit(square);
+        if (previous != null) {
+            pieces[index(previous.getTeamColor(), previous.getPieceType())] &= ~bit;
+            positionKey ^= Zobrist.piece(previous, square);
+            middlegameScore -= PieceSquareTables.middlegame(previous, square);
+            endgameScore -= PieceSquareTables.endgame(previous, square);
+            phase -= PieceSquareTables.phase(previous.getPieceType());
+            colors[previous.getTeamColor().ordinal()] &= ~bit;
+            occupied &= ~bit;
+            if (previous.getPieceType() == ChessPiece.PieceType.KING
+                    && kingSquares[previous.getTeamColor().ordinal()] == square) {
+                // Only reachable for boards with a spare king; otherwise this resolves to -1
+                long kings = pieces[index(previous.getTeamColor(), ChessPiece.PieceType.KING)];
+                kingSquares[previous.getTeamColor().ordinal()] = kings == 0 ? -1 : Long.numberOfTrailingZeros(kings);
+            }
+        }
+        mailbox[square] = piece;
+        if (piece != null) {
+            pieces[index(piece.getTeamColor(), piece.getPieceType())] |= bit;
+            positionKey ^= Zobrist.piece(piece, square);
+            middlegameScore += PieceSquareTables.middlegame(piece, square);
+            endgameScore += PieceSquareTables.endgame(piece, square);
+            phase += PieceSquareTables.phase(piece.getPieceType());
+            colors[piece.getTeamColor().ordinal()] |= bit;
+            occupied |= bit;
+            if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+                kingSquares[piece.getTeamColor().ordinal()] = square;
+            }
+        }
+        updateAttacks(square, (previous == null) != (piece == null));
+    }
+
+    /**
+     * Refreshes the attack sets touched by a change on one square: the piece now
+     * standing there and, if the square's occupancy flipped, every slider whose
+     * ray runs through it.
+     */
+    private void updateAttacks(int square, boolean occupancyChanged) {
+        ChessPiece piece = mailbox[square];
+        attacksFrom[square] = piece == null ? 0L : attacksOf(piece, square);
+
+        if (occupancyChanged) {
+            long queens = pieces[index(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN)]
+                    | pieces[index(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN)];
+            long rookLike = queens | pieces[index(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK)]
+                    | pieces[index(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK)];
+            long bishopLike = queens | pieces[index(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP)]
+                    | pieces[index(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP)];
+            long sliders = (Bitboards.rookAttacks(square, occupied) & rookLike)
+                    | (Bitboards.bishopAttacks(square, occupied) & bishopLike);
+            while (sliders != 0) {
+                int from = Long.numberOfTrailingZeros(sliders);
+                sliders &= sliders - 1;
+                attacksFrom[from] = attacksOf(mailbox[from], from);
+            }
+        }
+        attackMapsStale = true;
+    }
+
+    private long attacksOf(ChessPiece piece, int square) {
+        return switch (piece.getPieceType()) {
+            case PAWN -> Bitboards.pawnAttacks(piece.getTeamColor(), square);
+            case KNIGHT -> Bitboards.knightAttacks(square);
+            case BISHOP -> Bitboards.bishopAttacks(square, occupied);
+            case ROOK -> Bitboards.rookAttacks(square, occupied);
+            case QUEEN -> Bitboards.queenAttacks(square, occupied);
+            case KING -> Bitboards.kingAttacks(square);
+        };
+    }
+
+    /**
+     * Gets every square attacked by the given team. The per-piece attack sets
+     * behind this are maintained incrementally as pieces are added and removed,
+     * so this only has to combine them.
+     *
+     * @param color the attacking team
+     * @return the set of squares attacked by that team
+     */
+    public long getAttackedSquares(ChessGame.TeamColor color) {
+        if (attackMapsStale) {
+            attackMaps[0] = combineAttacks(colors[0]);
+            attackMaps[1] = combineAttacks(colors[1]);
+            attackMapsStale = false;
+        }
+        return attackMaps[color.ordinal()];
+    }
+
+    private long combineAttacks(long from) {
+        long attacks = 0L;
+        while (from != 0) {
+            attacks |= attacksFrom[Long.numberOfTrailingZeros(from)];
+            from &= from - 1;
+        }
+        return attacks;
     }
 
     /**
@@ -34,7 +178,135 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return this.squares[position.getRow() - 1][position.getColumn() - 1];
+        return mailbox[Bitboards.square(position)];
+    }
+
+    /**
+     * Gets a chess piece on the chessboard
+     *
+     * @param square the square index (see {@link Bitboards}) to get the piece from
+     * @return Either the piece on the square, or null if the square is empty
+     */
+    public ChessPiece getPiece(int square) {
+        return mailbox[square];
+    }
+
+    /**
+     * @return the set of squares holding pieces of the given color and type
+     */
+    public long getPieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieces[index(color, type)];
+    }
+
+    /**
+     * @return the set of squares holding pieces of the given color
+     */
+    public long getPieces(ChessGame.TeamColor color) {
+        return colors[color.ordinal()];
+    }
+
+    /**
+     * @return the set of occupied squares
+     */
+    public long getOccupied() {
+        return occupied;
+    }
+
+    /**
+     * Gets the 64-bit Zobrist key of the piece placement. It is updated
+     * incrementally by addPiece, so reading it is free; equal boards always have
+     * equal keys.
+     *
+     * @return the position key of this board
+     */
+    public long positionKey() {
+        return positionKey;
+    }
+
+    /**
+     * @return the sum of {@link PieceSquareTables#middlegame middlegame values}
+     * of the pieces on the board, positive when white is ahead
+     */
+    public int getMiddlegameScore() {
+        return middlegameScore;
+    }
+
+    /**
+     * @return the sum of {@link PieceSquareTables#endgame endgame values} of
+     * the pieces on the board, positive when white is ahead
+     */
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    /**
+     * @return the game phase of the material on the board, from 0 for bare
+     * kings and pawns upwards; see {@link PieceSquareTables#MAX_PHASE}
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * @return the square index of the given team's king, or -1 if it has none
+     */
+    public int getKingSquare(ChessGame.TeamColor color) {
+        return kingSquares[color.ordinal()];
+    }
+
+    /**
+     * @return the position of the given team's king, or null if it has none
+     */
+    public ChessPosition getKingPosition(ChessGame.TeamColor color) {
+        int square = kingSquares[color.ordinal()];
+        return square < 0 ? null : ChessPosition.of(square);
+    }
+
+    /**
+     * Finds every piece of the given color that attacks a square
+     *
+     * @param square the square being attacked
+     * @param color  the attacking team
+     * @return the set of squares holding attackers
+     */
+    public long attackersTo(int square, ChessGame.TeamColor color) {
+        return attackersTo(square, color, occupied);
+    }
+
+    /**
+     * Finds every piece of the given color that would attack a square if the
+     * board's occupancy were {@code occupied}, e.g. with a king lifted off to
+     * see which squares it may step back along a checking ray to
+     *
+     * @param square   the square being attacked
+     * @param color    the attacking team
+     * @param occupied the occupancy sliding attacks are blocked by
+     * @return the set of squares holding attackers
+     */
+    public long attackersTo(int square, ChessGame.TeamColor color, long occupied) {
+        ChessGame.TeamColor defender = color == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long queens = getPieces(color, ChessPiece.PieceType.QUEEN);
+        long rookLike = getPieces(color, ChessPiece.PieceType.ROOK) | queens;
+        long bishopLike = getPieces(color, ChessPiece.PieceType.BISHOP) | queens;
+
+        // A pawn of ours on the square would attack exactly the squares enemy pawns attack it from
+        return (Bitboards.pawnAttacks(defender, square) & getPieces(color, ChessPiece.PieceType.PAWN))
+                | (Bitboards.knightAttacks(square) & getPieces(color, ChessPiece.PieceType.KNIGHT))
+                | (Bitboards.kingAttacks(square) & getPieces(color, ChessPiece.PieceType.KING))
+                | (Bitboards.rookAttacks(square, occupied) & rookLike)
+                | (Bitboards.bishopAttacks(square, occupied) & bishopLike);
+    }
+
+    /**
+     * @return True if any piece of the given color attacks the square
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor color) {
+        return attackersTo(square, color) != 0;
+    }
+
+    private static int index(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * PIECE_TYPES + type.ordinal();
     }
 
     /**
@@ -42,39 +314,49 @@ public class ChessBoard {
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
-        this.squares = new ChessPiece[8][8];
+        Arrays.fill(mailbox, null);
+        Arrays.fill(pieces, 0L);
+        Arrays.fill(colors, 0L);
+        occupied = 0L;
+        Arrays.fill(attacksFrom, 0L);
+        attackMapsStale = true;
+        Arrays.fill(kingSquares, -1);
+        positionKey = 0L;
+        middlegameScore = 0;
+        endgameScore = 0;
+        phase = 0;
 
         // Add pawns
         for(int i=1; i <= 8; i++) {
-            addPiece(new ChessPosition(2, i), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-            addPiece(new ChessPosition(7, i), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(2, i), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(7, i), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
         }
 
         // Add Kings (King on e-file, column 5)
-        addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(1, 5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        addPiece(ChessPosition.of(8, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
 
         // Add Queens (Queen on d-file, column 4)
-        addPiece(new ChessPosition(1, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(8, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(1, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        addPiece(ChessPosition.of(8, 4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
 
         // Add Bishops (on c-file and f-file, columns 3 and 6)
-        addPiece(new ChessPosition(1, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 3), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(1, 6), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 3), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        addPiece(ChessPosition.of(8, 6), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
 
         // Add Knights (on b-file and g-file, columns 2 and 7)
-        addPiece(new ChessPosition(1, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(1, 7), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 2), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        addPiece(ChessPosition.of(8, 7), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
 
         // Add Rooks (on a-file and h-file, columns 1 and 8)
-        addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(1, 8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(1, 8), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        addPiece(ChessPosition.of(8, 8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
     }
 
     @Override
@@ -82,18 +364,18 @@ public class ChessBoard {
         if (!(o instanceof ChessBoard that)) {
             return false;
         }
-        return Objects.deepEquals(squares, that.squares);
+        return Arrays.equals(pieces, that.pieces);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return Long.hashCode(positionKey);
     }
 
     @Override
     public String toString() {
         return "ChessBoard{" +
-                "squares=" + Arrays.toString(squares) +
+                "squares=" + Arrays.toString(mailbox) +
                 '}';
     }
 }
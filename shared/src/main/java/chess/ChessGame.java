@@ -1,7 +1,12 @@
 package chess;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -14,6 +19,20 @@ public class ChessGame {
     private ChessBoard board;
     private TeamColor teamTurn;
     private GameState gameState;
+    private final transient LegalMoveGenerator legalMoves = new LegalMoveGenerator();
+    // One record per move made and not yet unmade, most recent last; see makeMove(int)
+    private transient long[] undoStack = new long[64];
+    private transient int undoCount;
+    // Plies played before the oldest move on the undo stack; see getPly()
+    private transient int firstPly;
+    // Legal moves of the side to move and whether it is in check, valid while
+    // turnMovesKey matches the position; the map form is built from them on demand
+    private final transient MoveBuffer turnMoves = new MoveBuffer();
+    private transient boolean turnMovesValid;
+    private transient long turnMovesKey;
+    private transient boolean turnInCheck;
+    private transient Map<ChessPosition, Collection<ChessMove>> turnMoveMap;
+    private transient long turnMoveMapKey;
 
     public enum GameState {
         ACTIVE,
@@ -22,6 +41,16 @@ public class ChessGame {
         RESIGNED
     }
 
+    /**
+     * Enum describing the position from the point of view of the team to move
+     */
+    public enum Status {
+        ACTIVE,
+        CHECK,
+        CHECKMATE,
+        STALEMATE
+    }
+
     public ChessGame() {
         this.board = new ChessBoard();
         board.resetBoard();
@@ -29,6 +58,31 @@ public class ChessGame {
         this.gameState = GameState.ACTIVE;
     }
 
+    /**
+     * Creates an independent copy of a game, including the moves that can still
+     * be taken back with {@link #unmakeMove()} and the cached moves of the team
+     * to move. Searches run on copies so the original game is never touched.
+     *
+     * @param other the game to copy
+     */
+    public ChessGame(ChessGame other) {
+        this.board = new ChessBoard(other.board);
+        this.teamTurn = other.teamTurn;
+        this.gameState = other.gameState;
+        this.undoStack = Arrays.copyOf(other.undoStack, other.undoStack.length);
+        this.undoCount = other.undoCount;
+        this.firstPly = other.firstPly;
+        // The cached moves only depend on the position, which the copy shares
+        if (other.turnMovesValid) {
+            this.turnMoves.addAll(other.turnMoves);
+            this.turnMovesValid = true;
+            this.turnMovesKey = other.turnMovesKey;
+            this.turnInCheck = other.turnInCheck;
+        }
+        this.turnMoveMap = other.turnMoveMap;
+        this.turnMoveMapKey = other.turnMoveMapKey;
+    }
+
     /**
      * @return Which team's turn it is
      */
@@ -72,21 +126,6 @@ public class ChessGame {
         BLACK
     }
 
-    private boolean isValidMove(ChessMove move) {
-        ChessPiece movingPiece = board.getPiece(move.getStartPosition());
-        ChessPiece target = board.getPiece(move.getEndPosition());
-
-        board.addPiece(move.getStartPosition(), null);
-        board.addPiece(move.getEndPosition(), movingPiece);
-
-        boolean validMove = !isInCheck(movingPiece.getTeamColor());
-
-        board.addPiece(move.getStartPosition(), movingPiece);
-        board.addPiece(move.getEndPosition(), target);
-
-        return validMove;
-    }
-
     /**
      * Gets a valid moves for a piece at the given location
      *
@@ -101,16 +140,67 @@ public class ChessGame {
             return null;
         }
 
-        Collection<ChessMove> possibleMoves = piece.pieceMoves(board, startPosition);
-        Collection<ChessMove> validMoves = new ArrayList<>();
+        if (piece.getTeamColor() == teamTurn) {
+            Collection<ChessMove> moves = allValidMoves().get(startPosition);
+            return moves == null ? new ArrayList<>() : new ArrayList<>(moves);
+        }
+        MoveBuffer moves = new MoveBuffer();
+        generateValidMoves(Bitboards.square(startPosition), moves);
+        return moves.toChessMoves();
+    }
 
-        for (ChessMove move : possibleMoves) {
-            if (isValidMove(move)) {
-                validMoves.add(move);
+    /**
+     * Gets every valid move of the team whose turn it is, grouped by the
+     * position of the piece that makes it. The moves are generated once per
+     * position and kept until the board or turn changes, so highlighting,
+     * validating and then making a move all share one generation pass.
+     *
+     * @return an unmodifiable map from each movable piece's position to its
+     * valid moves; pieces without a valid move are absent
+     */
+    public Map<ChessPosition, Collection<ChessMove>> allValidMoves() {
+        long key = turnKey();
+        if (turnMoveMap == null || turnMoveMapKey != key) {
+            MoveBuffer moves = turnMoves();
+            Map<ChessPosition, List<ChessMove>> byPiece = new HashMap<>();
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                byPiece.computeIfAbsent(ChessPosition.of(PackedMove.from(move)), from -> new ArrayList<>())
+                        .add(PackedMove.toChessMove(move));
             }
+            Map<ChessPosition, Collection<ChessMove>> map = new HashMap<>();
+            byPiece.forEach((from, pieceMoves) -> map.put(from, Collections.unmodifiableList(pieceMoves)));
+            turnMoveMap = Collections.unmodifiableMap(map);
+            turnMoveMapKey = key;
         }
+        return turnMoveMap;
+    }
 
-        return validMoves;
+    /**
+     * Appends the valid moves for every piece of a team to a buffer as
+     * {@link PackedMove packed moves}
+     *
+     * @param teamColor the team to get valid moves for
+     * @param moves     the buffer to append to
+     */
+    public void generateValidMoves(TeamColor teamColor, MoveBuffer moves) {
+        legalMoves.prepare(board, teamColor).generate(moves);
+    }
+
+    /**
+     * Appends the valid moves for the piece on a square to a buffer as
+     * {@link PackedMove packed moves}. Nothing is added for an empty square.
+     *
+     * @param square the square (see {@link Bitboards}) of the piece to get valid moves for
+     * @param moves  the buffer to append to
+     */
+    public void generateValidMoves(int square, MoveBuffer moves) {
+        ChessPiece piece = board.getPiece(square);
+        if (piece == null) {
+            return;
+        }
+
+        legalMoves.prepare(board, piece.getTeamColor()).generate(square, moves);
     }
 
     /**
@@ -127,9 +217,7 @@ public class ChessGame {
             throw new InvalidMoveException("Game is not active");
         }
 
-        ChessPosition startPosition = move.getStartPosition();
-        ChessPosition endPosition = move.getEndPosition();
-        ChessPiece piece = board.getPiece(startPosition);
+        ChessPiece piece = board.getPiece(move.getStartPosition());
 
         if (piece == null) {
             throw new InvalidMoveException("There's no piece at the starting position");
@@ -139,48 +227,163 @@ public class ChessGame {
             throw new InvalidMoveException("It's not " + piece.getTeamColor() + "'s turn");
         }
 
-        Collection<ChessMove> moves = validMoves(startPosition);
-        if (!moves.contains(move)) {
+        int packedMove = PackedMove.of(move);
+        if (!isLegal(packedMove)) {
             throw new InvalidMoveException("Invalid move");
         }
 
-        board.addPiece(startPosition, null);
+        makeMove(packedMove);
 
-        ChessPiece.PieceType promotionPieceType = move.getPromotionPiece();
-        if (promotionPieceType != null) {
-            ChessPiece promotedPiece = new ChessPiece(piece.getTeamColor(), promotionPieceType);
-            board.addPiece(endPosition, promotedPiece);
-        } else {
-            board.addPiece(endPosition, piece);
+        // Only the team now to move can have been mated or stalemated by this move
+        switch (getStatus()) {
+            case CHECKMATE -> gameState = GameState.CHECKMATE;
+            case STALEMATE -> gameState = GameState.STALEMATE;
+            default -> {
+            }
         }
+    }
 
-        teamTurn = teamTurn == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+    /**
+     * Gets whether the team to move is in check, checkmate or stalemate. This
+     * reads the same cached move list as {@link #allValidMoves()}, so after
+     * {@link #makeMove(ChessMove)} has checked for mate, the next move's
+     * validation costs nothing extra.
+     * <p>
+     * This describes the position only; a resigned game still reports the
+     * status of its final position.
+     *
+     * @return the status of the team to move
+     */
+    public Status getStatus() {
+        boolean canMove = !turnMoves().isEmpty();
+        if (canMove) {
+            return turnInCheck ? Status.CHECK : Status.ACTIVE;
+        }
+        return turnInCheck ? Status.CHECKMATE : Status.STALEMATE;
+    }
 
-        // Check for game over conditions
-        if (isInCheckmate(TeamColor.WHITE)) {
-            gameState = GameState.CHECKMATE;
-        } else if (isInCheckmate(TeamColor.BLACK)) {
-            gameState = GameState.CHECKMATE;
-        } else if (isInStalemate(TeamColor.WHITE) || isInStalemate(TeamColor.BLACK)) {
-            gameState = GameState.STALEMATE;
+    /**
+     * @return the cached valid moves of the team to move, generated first if
+     * the position has changed since they were last worked out
+     */
+    private MoveBuffer turnMoves() {
+        long key = turnKey();
+        if (!turnMovesValid || turnMovesKey != key) {
+            turnMoves.clear();
+            legalMoves.prepare(board, teamTurn).generate(turnMoves);
+            turnInCheck = legalMoves.inCheck();
+            turnMovesValid = true;
+            turnMovesKey = key;
         }
+        return turnMoves;
     }
 
-    private ChessPosition findKing(TeamColor teamColor) {
-        ChessPosition kingPosition = null;
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
+    private long turnKey() {
+        return board.positionKey() ^ Zobrist.sideToMove(teamTurn);
+    }
 
-                if (piece != null &&
-                    piece.getTeamColor() == teamColor &&
-                    piece.getPieceType() == ChessPiece.PieceType.KING) {
-                    kingPosition = position;
-                }
-            }
+    /**
+     * Makes a move without validating it and records how to take it back. This
+     * is the primitive searches and legality probes use to walk a move tree in
+     * place: every call must be paired with a later {@link #unmakeMove()}.
+     * <p>
+     * The move should come from {@link #generateValidMoves} for the side to
+     * move. The game state is left unchanged; only {@link #makeMove(ChessMove)}
+     * detects checkmate and stalemate.
+     *
+     * @param move the {@link PackedMove packed move} to make
+     */
+    public void makeMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        ChessPiece moving = board.getPiece(from);
+        ChessPiece captured = board.getPiece(to);
+
+        // Undo record: move in bits 0-15, captured piece index + 1 in 16-19,
+        // previous turn in bit 20 and previous game state in 21-23
+        if (undoCount == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoStack.length * 2);
+        }
+        undoStack[undoCount++] = move
+                | (long) (captured == null ? 0 : captured.index() + 1) << 16
+                | (long) teamTurn.ordinal() << 20
+                | (long) gameState.ordinal() << 21;
+
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        board.addPiece(from, null);
+        board.addPiece(to, promotion == null ? moving : ChessPiece.of(moving.getTeamColor(), promotion));
+        teamTurn = opponent(teamTurn);
+    }
+
+    /**
+     * Takes back the most recent move made with {@link #makeMove(int)} (or
+     * {@link #makeMove(ChessMove)}), restoring the board, turn and game state
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void unmakeMove() {
+        if (undoCount == 0) {
+            throw new IllegalStateException("No move to unmake");
+        }
+        long undo = undoStack[--undoCount];
+        int move = (int) (undo & 0xFFFF);
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int captured = (int) (undo >>> 16) & 0xF;
+
+        ChessPiece moved = board.getPiece(to);
+        if (PackedMove.promotion(move) != null) {
+            moved = ChessPiece.of(moved.getTeamColor(), ChessPiece.PieceType.PAWN);
+        }
+        board.addPiece(from, moved);
+        board.addPiece(to, captured == 0 ? null : ChessPiece.fromIndex(captured - 1));
+        teamTurn = TeamColor.values()[(int) (undo >>> 20) & 1];
+        gameState = GameState.values()[(int) (undo >>> 21) & 7];
+    }
+
+    /**
+     * Gets the number of plies (moves by either side) played in this game: the
+     * moves made on this object plus any played before it was restored, as set
+     * by {@link #setPly(int)}
+     *
+     * @return the current ply, 0 at the start of a game
+     */
+    public int getPly() {
+        return firstPly + undoCount;
+    }
+
+    /**
+     * Sets the number of plies played before the current position, for a game
+     * restored from a saved position. The moves recorded so far are forgotten
+     * and can no longer be unmade.
+     *
+     * @param ply the ply of the current position
+     */
+    public void setPly(int ply) {
+        this.firstPly = ply;
+        this.undoCount = 0;
+    }
+
+    /**
+     * @return the earliest ply whose move is still recorded; see {@link #getMove(int)}
+     */
+    public int getFirstRecordedPly() {
+        return firstPly;
+    }
+
+    /**
+     * Gets a move from this game's history
+     *
+     * @param ply the ply the move was played from, between
+     *            {@link #getFirstRecordedPly()} and {@link #getPly()} (exclusive)
+     * @return the {@link PackedMove packed move} played at that ply
+     * @throws IndexOutOfBoundsException if the move is not recorded
+     */
+    public int getMove(int ply) {
+        if (ply < firstPly || ply >= getPly()) {
+            throw new IndexOutOfBoundsException("No recorded move at ply " + ply);
         }
-        return kingPosition;
+        return (int) (undoStack[ply - firstPly] & 0xFFFF);
     }
 
     /**
@@ -190,45 +393,31 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        ChessPosition kingPosition = findKing(teamColor);
-
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
+        int kingSquare = board.getKingSquare(teamColor);
+        if (kingSquare < 0) {
+            return false;
+        }
 
-                if (piece != null && piece.getTeamColor() != teamColor) {
-                    Collection<ChessMove> moves = piece.pieceMoves(board, position);
+        return (board.getAttackedSquares(opponent(teamColor)) & Bitboards.bit(kingSquare)) != 0;
+    }
 
-                    for (ChessMove move : moves) {
-                        if (move.getEndPosition().equals(kingPosition)) {
-                            return true;
-                        }
-                    }
-                }
+    private static TeamColor opponent(TeamColor teamColor) {
+        return teamColor == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+    }
 
+    private boolean isLegal(int move) {
+        // Only called for a piece of the team to move
+        MoveBuffer moves = turnMoves();
+        for (int i = 0; i < moves.size(); i++) {
+            if (moves.get(i) == move) {
+                return true;
             }
         }
-
         return false;
     }
 
     private boolean hasNoValidMoves(TeamColor teamColor) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-
-                if (piece != null && piece.getTeamColor() == teamColor) {
-                    Collection<ChessMove> moves = validMoves(position);
-                    if (moves != null && !moves.isEmpty()) {
-                        return false;
-                    }
-                }
-            }
-        }
-
-        return true;
+        return !legalMoves.prepare(board, teamColor).hasLegalMove();
     }
 
     /**
@@ -238,6 +427,9 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
+        if (teamColor == teamTurn) {
+            return getStatus() == Status.CHECKMATE;
+        }
         boolean inCheck = isInCheck(teamColor);
         if (!inCheck) {
             return false;
@@ -254,6 +446,9 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
+        if (teamColor == teamTurn) {
+            return getStatus() == Status.STALEMATE;
+        }
         boolean inCheck = isInCheck(teamColor);
         if (inCheck) {
             return false;
@@ -262,6 +457,18 @@ public class ChessGame {
         return hasNoValidMoves(teamColor);
     }
 
+    /**
+     * Gets the 64-bit Zobrist key of this game's position: the board's key
+     * combined with the side to move and the game state. Equal games have equal
+     * keys, so it can key transposition tables, move caches and repetition
+     * checks.
+     *
+     * @return the position key of this game
+     */
+    public long positionKey() {
+        return board.positionKey() ^ Zobrist.sideToMove(teamTurn) ^ Zobrist.gameState(gameState);
+    }
+
     /**
      * Sets this game's chessboard with a given board
      *
@@ -269,6 +476,9 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         this.board = board;
+        // Recorded moves refer to the old board
+        this.firstPly += undoCount;
+        this.undoCount = 0;
     }
 
     /**
@@ -292,6 +502,6 @@ public class ChessGame {
 
     @Override
     public int hashCode() {
-        return Objects.hash(board, teamTurn, gameState);
+        return Long.hashCode(positionKey());
     }
 }
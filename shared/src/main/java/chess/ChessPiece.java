@@ -15,28 +15,42 @@ import java.util.Objects;
 
 public class ChessPiece {
 
+    // Calculators hold no state, so one per piece type (indexed by ordinal) is shared by every piece
+    private static final PieceMovesCalculator[] CALCULATORS = {
+            new KingMovesCalculator(),
+            new QueenMovesCalculator(),
+            new BishopMovesCalculator(),
+            new KnightMovesCalculator(),
+            new RookMovesCalculator(),
+            new PawnMovesCalculator()
+    };
+    private static final int PIECE_TYPES = CALCULATORS.length;
+    private static final ChessPiece[] CANONICAL = new ChessPiece[2 * PIECE_TYPES];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                CANONICAL[color.ordinal() * PIECE_TYPES + type.ordinal()] = new ChessPiece(color, type);
+            }
+        }
+    }
+
     private final ChessGame.TeamColor pieceColor;
     private final PieceType type;
-    private final PieceMovesCalculator calculator;
 
     public ChessPiece(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
         this.pieceColor = pieceColor;
         this.type = type;
-        this.calculator = createCalculator(type);
     }
 
-    private PieceMovesCalculator createCalculator(PieceType type) {
-        return switch (type) {
-            case PAWN -> new PawnMovesCalculator();
-            case KNIGHT -> new KnightMovesCalculator();
-            case BISHOP -> new BishopMovesCalculator();
-            case ROOK -> new RookMovesCalculator();
-            case QUEEN -> new QueenMovesCalculator();
-            case KING -> new KingMovesCalculator();
-
-
-            default -> ((board, position) -> new ArrayList<>());
-        };
+    /**
+     * Gets the shared instance for a color and type. Pieces are immutable, so
+     * there is never a reason to hold more than one of each of the twelve.
+     *
+     * @return the canonical piece of the given color and type
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return CANONICAL[pieceColor.ordinal() * PIECE_TYPES + type.ordinal()];
     }
 
     /**
@@ -51,6 +65,20 @@ public class ChessPiece {
         PAWN
     }
 
+    /**
+     * @return a dense index in 0..11 identifying this piece's color and type
+     */
+    public int index() {
+        return pieceColor.ordinal() * PIECE_TYPES + type.ordinal();
+    }
+
+    /**
+     * @return the canonical piece with the given {@link #index()}
+     */
+    public static ChessPiece fromIndex(int index) {
+        return CANONICAL[index];
+    }
+
     /**
      * @return Which team this chess piece belongs to
      */
@@ -78,9 +106,15 @@ public class ChessPiece {
             return new ArrayList<>();
         }
 
-        PieceMovesCalculator calculator = createCalculator(piece.getPieceType());
+        return CALCULATORS[piece.getPieceType().ordinal()].pieceMoves(board, myPosition);
+    }
 
-        return calculator.pieceMoves(board, myPosition);
+    /**
+     * Appends the pseudo-legal moves of this piece, standing on the given square,
+     * to a buffer as {@link PackedMove packed moves}
+     */
+    public void generateMoves(ChessBoard board, int square, MoveBuffer moves) {
+        CALCULATORS[type.ordinal()].generateMoves(board, square, moves);
     }
 
     @Override
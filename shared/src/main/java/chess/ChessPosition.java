@@ -1,8 +1,15 @@
 package chess;
 
-import java.util.Objects;
-
 public class ChessPosition {
+    private static final ChessPosition[] CANONICAL = new ChessPosition[64];
+
+    static {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                CANONICAL[Bitboards.square(row, col)] = new ChessPosition(row, col);
+            }
+        }
+    }
 
     private final int row;
     private final int col;
@@ -13,6 +20,21 @@ public class ChessPosition {
         this.col = col;
     }
 
+    /**
+     * @return the shared instance for an on-board position, or a new one for
+     * coordinates off the board
+     */
+    public static ChessPosition of(int row, int col) {
+        return Bitboards.onBoard(row, col) ? CANONICAL[Bitboards.square(row, col)] : new ChessPosition(row, col);
+    }
+
+    /**
+     * @return the shared instance for a square index (see {@link Bitboards})
+     */
+    public static ChessPosition of(int square) {
+        return CANONICAL[square];
+    }
+
     public int getRow() {
         return row;
     }
@@ -31,6 +53,6 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        return 31 * row + col;
     }
 }
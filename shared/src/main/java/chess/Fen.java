@@ -0,0 +1,131 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation.
+ * <p>
+ * Only the piece placement and side-to-move fields carry information in this
+ * engine: castling and en passant are not part of the rules it implements, so
+ * those fields are written as {@code -} and ignored when read, as are the move
+ * clocks.
+ */
+public final class Fen {
+    public static final String STARTING_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    private Fen() {
+    }
+
+    /**
+     * Builds a game from a FEN string
+     *
+     * @param fen the position to load
+     * @return an active game with the given board and side to move
+     * @throws IllegalArgumentException if the string is not valid FEN
+     */
+    public static ChessGame parse(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        ChessGame game = new ChessGame();
+        game.setBoard(parseBoard(fields[0]));
+        if (fields.length > 1) {
+            game.setTeamTurn(switch (fields[1]) {
+                case "w" -> ChessGame.TeamColor.WHITE;
+                case "b" -> ChessGame.TeamColor.BLACK;
+                default -> throw new IllegalArgumentException("Invalid side to move: " + fields[1]);
+            });
+        }
+        return game;
+    }
+
+    /**
+     * Builds a board from the piece placement field of a FEN string
+     */
+    public static ChessBoard parseBoard(String placement) {
+        String[] ranks = placement.split("/");
+        if (ranks.length != 8) {
+            throw new IllegalArgumentException("Expected 8 ranks but found " + ranks.length);
+        }
+
+        ChessBoard board = new ChessBoard();
+        for (int i = 0; i < 8; i++) {
+            int row = 8 - i;
+            int col = 1;
+            for (char c : ranks[i].toCharArray()) {
+                if (Character.isDigit(c)) {
+                    col += c - '0';
+                } else {
+                    if (col > 8) {
+                        throw new IllegalArgumentException("Too many squares on rank " + row);
+                    }
+                    board.addPiece(ChessPosition.of(row, col), pieceFor(c));
+                    col++;
+                }
+            }
+            if (col != 9) {
+                throw new IllegalArgumentException("Wrong number of squares on rank " + row);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * @return the FEN string for a game's board and side to move
+     */
+    public static String toFen(ChessGame game) {
+        String side = game.getTeamTurn() == ChessGame.TeamColor.WHITE ? "w" : "b";
+        return toFen(game.getBoard()) + " " + side + " - - 0 1";
+    }
+
+    /**
+     * @return the FEN piece placement field for a board
+     */
+    public static String toFen(ChessBoard board) {
+        StringBuilder placement = new StringBuilder();
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(ChessPosition.of(row, col));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    placement.append(empty);
+                    empty = 0;
+                }
+                placement.append(charFor(piece));
+            }
+            if (empty > 0) {
+                placement.append(empty);
+            }
+            if (row > 1) {
+                placement.append('/');
+            }
+        }
+        return placement.toString();
+    }
+
+    static ChessPiece pieceFor(char c) {
+        ChessGame.TeamColor color = Character.isUpperCase(c) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        ChessPiece.PieceType type = switch (Character.toLowerCase(c)) {
+            case 'k' -> ChessPiece.PieceType.KING;
+            case 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'b' -> ChessPiece.PieceType.BISHOP;
+            case 'n' -> ChessPiece.PieceType.KNIGHT;
+            case 'r' -> ChessPiece.PieceType.ROOK;
+            case 'p' -> ChessPiece.PieceType.PAWN;
+            default -> throw new IllegalArgumentException("Invalid piece: " + c);
+        };
+        return ChessPiece.of(color, type);
+    }
+
+    static char charFor(ChessPiece piece) {
+        char c = switch (piece.getPieceType()) {
+            case KING -> 'k';
+            case QUEEN -> 'q';
+            case BISHOP -> 'b';
+            case KNIGHT -> 'n';
+            case ROOK -> 'r';
+            case PAWN -> 'p';
+        };
+        return piece.getTeamColor() == ChessGame.TeamColor.WHITE ? Character.toUpperCase(c) : c;
+    }
+}
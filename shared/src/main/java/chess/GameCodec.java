@@ -0,0 +1,106 @@
+package chess;
+
+import java.util.regex.Pattern;
+
+/**
+ * Compact encodings of a game's position: the board, the team to move and the
+ * game state, which is everything a {@link ChessGame} needs to carry on.
+ * <p>
+ * The binary form is {@value #ENCODED_BYTES} bytes: 32 bytes holding one
+ * nibble per square (0 for empty, otherwise {@link ChessPiece#index()} + 1),
+ * square {@code 2i} in the low nibble of byte {@code i}, then one byte for the
+ * team to move and one for the game state, both as enum ordinals.
+ * <p>
+ * The text form is FEN-style: the FEN piece placement, {@code w} or {@code b}
+ * for the team to move and the game state's name, e.g.
+ * {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w ACTIVE}. Reading it also
+ * accepts a plain FEN string, as an active game.
+ */
+public final class GameCodec {
+    public static final int ENCODED_BYTES = 34;
+    private static final ChessGame.TeamColor[] TEAMS = ChessGame.TeamColor.values();
+    private static final ChessGame.GameState[] STATES = ChessGame.GameState.values();
+    // What a FEN string has where the text form names the game state
+    private static final Pattern CASTLING_FIELD = Pattern.compile("-|[KQkq]{1,4}");
+
+    private GameCodec() {
+    }
+
+    /**
+     * @return the binary form of a game
+     */
+    public static byte[] encode(ChessGame game) {
+        byte[] bytes = new byte[ENCODED_BYTES];
+        ChessBoard board = game.getBoard();
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(square);
+            if (piece != null) {
+                bytes[square >> 1] |= (byte) ((piece.index() + 1) << ((square & 1) << 2));
+            }
+        }
+        bytes[32] = (byte) game.getTeamTurn().ordinal();
+        bytes[33] = (byte) game.getGameState().ordinal();
+        return bytes;
+    }
+
+    /**
+     * Rebuilds a game from its binary form
+     *
+     * @throws IllegalArgumentException if the bytes are not an encoded game
+     */
+    public static ChessGame decode(byte[] bytes) {
+        if (bytes.length != ENCODED_BYTES) {
+            throw new IllegalArgumentException("Expected " + ENCODED_BYTES + " bytes but found " + bytes.length);
+        }
+        ChessBoard board = new ChessBoard();
+        for (int square = 0; square < 64; square++) {
+            int code = (bytes[square >> 1] >> ((square & 1) << 2)) & 0xF;
+            if (code > 12) {
+                throw new IllegalArgumentException("Invalid piece code " + code + " on square " + square);
+            }
+            if (code != 0) {
+                board.addPiece(square, ChessPiece.fromIndex(code - 1));
+            }
+        }
+        if (bytes[32] < 0 || bytes[32] >= TEAMS.length || bytes[33] < 0 || bytes[33] >= STATES.length) {
+            throw new IllegalArgumentException("Invalid team or game state");
+        }
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(TEAMS[bytes[32]]);
+        game.setGameState(STATES[bytes[33]]);
+        return game;
+    }
+
+    /**
+     * @return the text form of a game
+     */
+    public static String toText(ChessGame game) {
+        return Fen.toFen(game.getBoard())
+                + (game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ")
+                + game.getGameState().name();
+    }
+
+    /**
+     * Rebuilds a game from its text form or from a FEN string
+     *
+     * @throws IllegalArgumentException if the board, team to move or game state is invalid
+     */
+    public static ChessGame fromText(String text) {
+        String[] fields = text.trim().split("\\s+");
+        ChessGame game = Fen.parse(text);
+        if (fields.length > 2 && !CASTLING_FIELD.matcher(fields[2]).matches()) {
+            game.setGameState(stateNamed(fields[2]));
+        }
+        return game;
+    }
+
+    private static ChessGame.GameState stateNamed(String name) {
+        for (ChessGame.GameState state : STATES) {
+            if (state.name().equals(name)) {
+                return state;
+            }
+        }
+        throw new IllegalArgumentException("Unknown game state: " + name);
+    }
+}
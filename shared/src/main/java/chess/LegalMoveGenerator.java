@@ -0,0 +1,180 @@
+package chess;
+
+/**
+ * Generates strictly legal moves without making them on the board.
+ * <p>
+ * {@link #prepare} looks at the position once from one team's side: which
+ * enemy pieces give check and which of the team's pieces are pinned to their
+ * king. Every move is then accepted or rejected with a couple of mask tests -
+ * while in check a move has to capture the checker or block its ray, a pinned
+ * piece has to stay on the line through its king, and the king may only step
+ * onto squares the enemy does not attack with the king itself lifted off the
+ * board. A team without a king can never be in check, so all of its
+ * pseudo-legal moves are legal.
+ * <p>
+ * An instance is reusable but not thread-safe, and is only valid for the
+ * position it was last prepared on.
+ */
+final class LegalMoveGenerator {
+    private final MoveBuffer candidates = new MoveBuffer();
+
+    private ChessBoard board;
+    private ChessGame.TeamColor color;
+    private ChessGame.TeamColor enemy;
+    private int kingSquare;
+    private long checkers;
+    private long pinned;
+    // Squares a non-king move has to land on: everywhere, or the checker and its ray
+    private long checkMask;
+
+    /**
+     * Analyzes a position for one team. Must be called again after the board
+     * changes.
+     *
+     * @param board the board to generate moves on
+     * @param color the team to generate moves for
+     * @return this generator
+     */
+    LegalMoveGenerator prepare(ChessBoard board, ChessGame.TeamColor color) {
+        this.board = board;
+        this.color = color;
+        this.enemy = color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        this.kingSquare = board.getKingSquare(color);
+        this.checkers = 0L;
+        this.pinned = 0L;
+        this.checkMask = -1L;
+        if (kingSquare < 0) {
+            return this;
+        }
+
+        checkers = board.attackersTo(kingSquare, enemy);
+        if (Long.bitCount(checkers) == 1) {
+            int checker = Long.numberOfTrailingZeros(checkers);
+            checkMask = checkers | Bitboards.between(kingSquare, checker);
+        } else if (checkers != 0) {
+            // Double check: only the king can move
+            checkMask = 0L;
+        }
+
+        // Enemy sliders that would see the king through exactly one of our pieces pin it
+        long queens = board.getPieces(enemy, ChessPiece.PieceType.QUEEN);
+        long snipers = (Bitboards.rookAttacks(kingSquare, 0L)
+                & (board.getPieces(enemy, ChessPiece.PieceType.ROOK) | queens))
+                | (Bitboards.bishopAttacks(kingSquare, 0L)
+                & (board.getPieces(enemy, ChessPiece.PieceType.BISHOP) | queens));
+        long occupied = board.getOccupied();
+        while (snipers != 0) {
+            long blockers = Bitboards.between(kingSquare, Long.numberOfTrailingZeros(snipers)) & occupied;
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & board.getPieces(color);
+            }
+            snipers &= snipers - 1;
+        }
+        return this;
+    }
+
+    /**
+     * @return True if the prepared team's king is in check
+     */
+    boolean inCheck() {
+        return checkers != 0;
+    }
+
+    /**
+     * Appends the legal moves of every piece of the prepared team
+     *
+     * @param moves the buffer to append to
+     */
+    void generate(MoveBuffer moves) {
+        long pieces = board.getPieces(color);
+        while (pieces != 0) {
+            generate(Long.numberOfTrailingZeros(pieces), moves);
+            pieces &= pieces - 1;
+        }
+    }
+
+    /**
+     * Appends the legal moves of the piece on a square. Nothing is added for an
+     * empty square or a piece of the other team.
+     *
+     * @param square the square of the piece
+     * @param moves  the buffer to append to
+     */
+    void generate(int square, MoveBuffer moves) {
+        ChessPiece piece = board.getPiece(square);
+        if (piece == null || piece.getTeamColor() != color || !canMove(square)) {
+            return;
+        }
+
+        int first = moves.size();
+        piece.generateMoves(board, square, moves);
+
+        int kept = first;
+        for (int i = first; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (isLegal(move)) {
+                moves.set(kept++, move);
+            }
+        }
+        moves.truncate(kept);
+    }
+
+    /**
+     * @return True if the prepared team has at least one legal move, stopping
+     * at the first one found
+     */
+    boolean hasLegalMove() {
+        long pieces = board.getPieces(color);
+        // King moves first: they are the only candidates in double check
+        if (kingSquare >= 0) {
+            if (hasLegalMove(kingSquare)) {
+                return true;
+            }
+            pieces &= ~Bitboards.bit(kingSquare);
+        }
+        while (pieces != 0) {
+            if (hasLegalMove(Long.numberOfTrailingZeros(pieces))) {
+                return true;
+            }
+            pieces &= pieces - 1;
+        }
+        return false;
+    }
+
+    private boolean hasLegalMove(int square) {
+        if (!canMove(square)) {
+            return false;
+        }
+        candidates.clear();
+        board.getPiece(square).generateMoves(board, square, candidates);
+        for (int i = 0; i < candidates.size(); i++) {
+            if (isLegal(candidates.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean canMove(int square) {
+        // In double check nothing but the king moves, and a pinned piece can never
+        // also stop a check
+        if (square == kingSquare) {
+            return true;
+        }
+        return checkMask != 0 && (checkers == 0 || (pinned & Bitboards.bit(square)) == 0);
+    }
+
+    private boolean isLegal(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        if (from == kingSquare) {
+            long withoutKing = board.getOccupied() & ~Bitboards.bit(kingSquare);
+            return board.attackersTo(to, enemy, withoutKing) == 0;
+        }
+        if ((checkMask & Bitboards.bit(to)) == 0) {
+            return false;
+        }
+        return (pinned & Bitboards.bit(from)) == 0
+                || (Bitboards.line(kingSquare, from) & Bitboards.bit(to)) != 0;
+    }
+}
@@ -0,0 +1,106 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A reusable, growable list of {@link PackedMove packed moves}. Callers keep one
+ * around and {@link #clear()} it between generations so move generation runs
+ * without allocating.
+ */
+public class MoveBuffer {
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.KNIGHT
+    };
+
+    private int[] moves;
+    private int size;
+
+    public MoveBuffer() {
+        // No legal chess position has more than 218 moves
+        this(256);
+    }
+
+    public MoveBuffer(int capacity) {
+        this.moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * Adds a move from one square to each square in a target set
+     */
+    public void addAll(int from, long targets) {
+        while (targets != 0) {
+            add(PackedMove.of(from, Long.numberOfTrailingZeros(targets)));
+            targets &= targets - 1;
+        }
+    }
+
+    /**
+     * Adds every move in another buffer
+     */
+    public void addAll(MoveBuffer other) {
+        if (size + other.size > moves.length) {
+            moves = Arrays.copyOf(moves, Math.max(moves.length * 2, size + other.size));
+        }
+        System.arraycopy(other.moves, 0, moves, size, other.size);
+        size += other.size;
+    }
+
+    /**
+     * Adds one move for every piece a pawn may promote to
+     */
+    public void addPromotions(int from, int to) {
+        for (ChessPiece.PieceType type : PROMOTIONS) {
+            add(PackedMove.of(from, to, type));
+        }
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Drops every move from {@code newSize} onwards
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    /**
+     * @return the buffered moves as {@link ChessMove} objects
+     */
+    public Collection<ChessMove> toChessMoves() {
+        Collection<ChessMove> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(PackedMove.toChessMove(moves[i]));
+        }
+        return result;
+    }
+}
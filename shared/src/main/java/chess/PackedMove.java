@@ -0,0 +1,95 @@
+package chess;
+
+/**
+ * Encodes a move as a single {@code int} so move generation does not have to
+ * allocate {@link ChessMove} and {@link ChessPosition} objects.
+ * <p>
+ * Bits 0-5 hold the start square, bits 6-11 the end square (see
+ * {@link Bitboards} for square numbering) and bits 12-14 the promotion piece
+ * as {@code PieceType.ordinal() + 1}, or 0 for no promotion.
+ */
+public final class PackedMove {
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {
+    }
+
+    public static int of(int from, int to) {
+        return from | (to << 6);
+    }
+
+    public static int of(int from, int to, ChessPiece.PieceType promotion) {
+        return promotion == null ? of(from, to) : of(from, to) | ((promotion.ordinal() + 1) << 12);
+    }
+
+    public static int of(ChessMove move) {
+        return of(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                move.getPromotionPiece());
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * @return the promotion piece type, or null if the move is not a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int code = (move >>> 12) & 7;
+        return code == 0 ? null : TYPES[code - 1];
+    }
+
+    public static ChessMove toChessMove(int move) {
+        int from = from(move);
+        int to = to(move);
+        return new ChessMove(ChessPosition.of(from), ChessPosition.of(to), promotion(move));
+    }
+
+    /**
+     * Parses a move in coordinate notation, e.g. {@code e2e4} or {@code e7e8q}
+     *
+     * @throws IllegalArgumentException if the text is not a move
+     */
+    public static int parse(String text) {
+        if (text.length() != 4 && text.length() != 5) {
+            throw new IllegalArgumentException("Invalid move: " + text);
+        }
+        int from = parseSquare(text, 0);
+        int to = parseSquare(text, 2);
+        if (text.length() == 4) {
+            return of(from, to);
+        }
+        return of(from, to, Fen.pieceFor(text.charAt(4)).getPieceType());
+    }
+
+    /**
+     * @return the move in coordinate notation, e.g. {@code e2e4} or {@code e7e8q}
+     */
+    public static String toString(int move) {
+        StringBuilder text = new StringBuilder(5)
+                .append(squareName(from(move)))
+                .append(squareName(to(move)));
+        ChessPiece.PieceType promotion = promotion(move);
+        if (promotion != null) {
+            text.append(Fen.charFor(ChessPiece.of(ChessGame.TeamColor.BLACK, promotion)));
+        }
+        return text.toString();
+    }
+
+    private static int parseSquare(String text, int index) {
+        int col = text.charAt(index) - 'a' + 1;
+        int row = text.charAt(index + 1) - '0';
+        if (!Bitboards.onBoard(row, col)) {
+            throw new IllegalArgumentException("Invalid square in move: " + text);
+        }
+        return Bitboards.square(row, col);
+    }
+
+    private static String squareName(int square) {
+        return "" + (char) ('a' + Bitboards.col(square) - 1) + Bitboards.row(square);
+    }
+}
@@ -0,0 +1,215 @@
+package chess;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * {@link Perft} on a fork/join pool, for move trees too big to walk on one
+ * thread.
+ * <p>
+ * The tree is split into one task per move at the root and at the second
+ * ply. Each task works on its own copy of the game, so the tasks share nothing
+ * mutable except, optionally, a cache of subtree counts: transpositions reach
+ * the same position by different move orders, and a position's count to a
+ * given depth only has to be worked out once.
+ */
+public final class ParallelPerft {
+    // Plies below the root that are split into separate tasks
+    private static final int SPLIT_PLIES = 2;
+
+    private ParallelPerft() {
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree below a position using the
+     * threads of a pool. The game itself is not modified.
+     *
+     * @param game           the position to start from; the side to move is the game's turn
+     * @param depth          the number of plies to search
+     * @param pool           the pool to run the tasks on
+     * @param cacheMegabytes size of the shared subtree count cache, or 0 for none
+     * @return the number of move paths of exactly {@code depth} plies
+     */
+    public static long perft(ChessGame game, int depth, ForkJoinPool pool, int cacheMegabytes) {
+        if (depth <= 0) {
+            return 1;
+        }
+        Cache cache = cacheMegabytes > 0 ? new Cache(cacheMegabytes) : null;
+        return pool.invoke(new SubtreeTask(new ChessGame(game), depth, SPLIT_PLIES, cache));
+    }
+
+    /**
+     * Runs {@link #perft} on a new pool of the given size and times it
+     */
+    public static Perft.Result run(ChessGame game, int depth, int threads, int cacheMegabytes) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long start = System.nanoTime();
+            long nodes = perft(game, depth, pool, cacheMegabytes);
+            return new Perft.Result(nodes, System.nanoTime() - start);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static final class SubtreeTask extends RecursiveTask<Long> {
+        private final ChessGame game;
+        private final int depth;
+        private final int splitPlies;
+        private final Cache cache;
+
+        SubtreeTask(ChessGame game, int depth, int splitPlies, Cache cache) {
+            this.game = game;
+            this.depth = depth;
+            this.splitPlies = splitPlies;
+            this.cache = cache;
+        }
+
+        @Override
+        protected Long compute() {
+            if (splitPlies == 0 || depth <= 2) {
+                return count(game, depth, buffers(depth), cache);
+            }
+
+            MoveBuffer moves = new MoveBuffer();
+            game.generateValidMoves(game.getTeamTurn(), moves);
+            SubtreeTask[] children = new SubtreeTask[moves.size()];
+            for (int i = 0; i < children.length; i++) {
+                ChessGame child = new ChessGame(game);
+                child.makeMove(moves.get(i));
+                children[i] = new SubtreeTask(child, depth - 1, splitPlies - 1, cache);
+            }
+            invokeAll(children);
+
+            long nodes = 0;
+            for (SubtreeTask child : children) {
+                nodes += child.join();
+            }
+            return nodes;
+        }
+    }
+
+    private static long count(ChessGame game, int depth, MoveBuffer[] buffers, Cache cache) {
+        MoveBuffer moves = buffers[depth];
+        moves.clear();
+        game.generateValidMoves(game.getTeamTurn(), moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long key = cache == null ? 0 : game.positionKey();
+        if (cache != null) {
+            long cached = cache.get(key, depth);
+            if (cached >= 0) {
+                return cached;
+            }
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            nodes += count(game, depth - 1, buffers, cache);
+            game.unmakeMove();
+        }
+
+        if (cache != null) {
+            cache.put(key, depth, nodes);
+        }
+        return nodes;
+    }
+
+    private static MoveBuffer[] buffers(int depth) {
+        MoveBuffer[] buffers = new MoveBuffer[depth + 1];
+        for (int i = 0; i <= depth; i++) {
+            buffers[i] = new MoveBuffer();
+        }
+        return buffers;
+    }
+
+    /**
+     * Subtree counts keyed by position and depth, shared between threads
+     * without locking. Like the engine's transposition table, each slot holds
+     * the count and the key XORed with it, so a slot torn by two concurrent
+     * writers fails validation and reads as a miss.
+     */
+    private static final class Cache {
+        private final long[] slots;
+        private final int mask;
+
+        Cache(int megabytes) {
+            long entries = Long.highestOneBit((long) megabytes * 1024 * 1024 / (2 * Long.BYTES));
+            entries = Math.min(entries, 1L << 29);
+            this.slots = new long[(int) entries * 2];
+            this.mask = (int) entries - 1;
+        }
+
+        /**
+         * @return the cached count, or -1 if there is none
+         */
+        long get(long positionKey, int depth) {
+            long key = key(positionKey, depth);
+            int slot = slot(key);
+            long nodes = slots[slot + 1];
+            return nodes != 0 && (slots[slot] ^ nodes) == key ? nodes : -1;
+        }
+
+        void put(long positionKey, int depth, long nodes) {
+            long key = key(positionKey, depth);
+            int slot = slot(key);
+            slots[slot] = key ^ nodes;
+            slots[slot + 1] = nodes;
+        }
+
+        private static long key(long positionKey, int depth) {
+            // The same position searched to different depths needs separate entries
+            return positionKey ^ (depth * 0x9E3779B97F4A7C15L);
+        }
+
+        private int slot(long key) {
+            return (int) ((key ^ (key >>> 32)) & mask) << 1;
+        }
+    }
+
+    /**
+     * Measures how perft throughput scales with threads: the same tree is
+     * counted with 1, 2, 4, ... threads up to the number of cores.
+     * <p>
+     * Usage: {@code ParallelPerft <depth> [fen] [--threads max] [--cache megabytes]}
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: ParallelPerft <depth> [fen] [--threads max] [--cache megabytes]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        String fen = Fen.STARTING_POSITION;
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        int cacheMegabytes = 0;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--threads") && i + 1 < args.length) {
+                maxThreads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--cache") && i + 1 < args.length) {
+                cacheMegabytes = Integer.parseInt(args[++i]);
+            } else {
+                fen = args[i];
+            }
+        }
+        ChessGame game = Fen.parse(fen);
+        // Let the JIT compile move generation before anything is timed
+        run(game, Math.min(depth, 5), 1, cacheMegabytes);
+
+        System.out.printf("%7s %14s %10s %14s %8s%n", "threads", "nodes", "s", "nodes/s", "speedup");
+        double baseNanos = 0;
+        for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+            Perft.Result result = run(game, depth, threads, cacheMegabytes);
+            if (threads == 1) {
+                baseNanos = result.elapsedNanos();
+            }
+            System.out.printf("%7d %14d %10.3f %14.0f %7.2fx%n", threads, result.nodes(),
+                    result.elapsedNanos() / 1e9, result.nodesPerSecond(), baseNanos / result.elapsedNanos());
+            if (threads >= maxThreads) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package chess;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Move path enumeration ("perft"): counts the leaf nodes of the legal move tree
+ * to a fixed depth. Comparing the counts against published values for
+ * reference positions checks move generation, and timing the walk measures it.
+ */
+public final class Perft {
+
+    /**
+     * The outcome of a timed perft run
+     *
+     * @param nodes        leaf nodes counted
+     * @param elapsedNanos wall-clock time taken
+     */
+    public record Result(long nodes, long elapsedNanos) {
+        public double nodesPerSecond() {
+            return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+
+    private Perft() {
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree below a position. The game is
+     * walked in place and is back in its starting position when this returns.
+     *
+     * @param game  the position to start from; the side to move is the game's turn
+     * @param depth the number of plies to search
+     * @return the number of move paths of exactly {@code depth} plies
+     */
+    public static long perft(ChessGame game, int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        return count(game, depth, buffers(depth));
+    }
+
+    /**
+     * Runs {@link #perft} and times it
+     */
+    public static Result run(ChessGame game, int depth) {
+        long start = System.nanoTime();
+        long nodes = perft(game, depth);
+        return new Result(nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Breaks a perft count down by root move, which narrows a wrong total down
+     * to the move whose subtree disagrees with a reference engine
+     *
+     * @return the leaf count below each legal root move, in generation order
+     */
+    public static Map<ChessMove, Long> divide(ChessGame game, int depth) {
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        if (depth <= 0) {
+            return counts;
+        }
+
+        MoveBuffer[] buffers = buffers(depth);
+        MoveBuffer rootMoves = new MoveBuffer();
+        game.generateValidMoves(game.getTeamTurn(), rootMoves);
+        for (int i = 0; i < rootMoves.size(); i++) {
+            int move = rootMoves.get(i);
+            long nodes;
+            if (depth == 1) {
+                nodes = 1;
+            } else {
+                game.makeMove(move);
+                nodes = count(game, depth - 1, buffers);
+                game.unmakeMove();
+            }
+            counts.put(PackedMove.toChessMove(move), nodes);
+        }
+        return counts;
+    }
+
+    private static long count(ChessGame game, int depth, MoveBuffer[] buffers) {
+        MoveBuffer moves = buffers[depth];
+        moves.clear();
+        game.generateValidMoves(game.getTeamTurn(), moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            nodes += count(game, depth - 1, buffers);
+            game.unmakeMove();
+        }
+        return nodes;
+    }
+
+    private static MoveBuffer[] buffers(int depth) {
+        MoveBuffer[] buffers = new MoveBuffer[depth + 1];
+        for (int i = 0; i <= depth; i++) {
+            buffers[i] = new MoveBuffer();
+        }
+        return buffers;
+    }
+
+    /**
+     * Usage: {@code Perft <depth> [fen] [--divide]}. Prints the node count and
+     * nodes per second, plus the per-move breakdown when dividing.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: Perft <depth> [fen] [--divide]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        boolean divide = false;
+        String fen = Fen.STARTING_POSITION;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--divide")) {
+                divide = true;
+            } else {
+                fen = args[i];
+            }
+        }
+
+        ChessGame game = Fen.parse(fen);
+        if (divide) {
+            long start = System.nanoTime();
+            long total = 0;
+            for (Map.Entry<ChessMove, Long> entry : divide(game, depth).entrySet()) {
+                System.out.printf("%s: %d%n", PackedMove.toString(PackedMove.of(entry.getKey())), entry.getValue());
+                total += entry.getValue();
+            }
+            report(new Result(total, System.nanoTime() - start));
+        } else {
+            report(run(game, depth));
+        }
+    }
+
+    private static void report(Result result) {
+        System.out.printf("Nodes: %d%nTime: %.3f s%nNodes/second: %.0f%n",
+                result.nodes(), result.elapsedNanos() / 1e9, result.nodesPerSecond());
+    }
+}
@@ -3,5 +3,16 @@ package chess;
 import java.util.Collection;
 
 public interface PieceMovesCalculator {
-    Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition position);
+    /**
+     * Appends the pseudo-legal moves of the piece on a square to a buffer as
+     * {@link PackedMove packed moves}. Nothing is added if the square is empty or
+     * holds a piece this calculator does not handle.
+     */
+    void generateMoves(ChessBoard board, int square, MoveBuffer moves);
+
+    default Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition position) {
+        MoveBuffer moves = new MoveBuffer();
+        generateMoves(board, Bitboards.square(position), moves);
+        return moves.toChessMoves();
+    }
 }
@@ -0,0 +1,57 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of the key for
+ * every (piece, square) pair on the board, plus the side-to-move and game-state
+ * keys, so making or unmaking a move updates it with a handful of XORs.
+ * <p>
+ * The keys come from a fixed seed so that keys are stable across runs and can
+ * be stored (opening books, persisted caches).
+ */
+public final class Zobrist {
+    private static final long SEED = 0x5EED_C0FF_EE15_F00DL;
+
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+    private static final long BLACK_TO_MOVE;
+    private static final long[] GAME_STATE = new long[ChessGame.GameState.values().length];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[] squares : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                squares[square] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        // An active game contributes nothing, so its key is just board and side to move
+        for (int i = 1; i < GAME_STATE.length; i++) {
+            GAME_STATE[i] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @return the key for a piece standing on a square
+     */
+    public static long piece(ChessPiece piece, int square) {
+        return PIECE_SQUARE[piece.index()][square];
+    }
+
+    /**
+     * @return the key folded in when the given team is to move
+     */
+    public static long sideToMove(ChessGame.TeamColor team) {
+        return team == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0L;
+    }
+
+    /**
+     * @return the key folded in for the given game state
+     */
+    public static long gameState(ChessGame.GameState state) {
+        return state == null ? 0L : GAME_STATE[state.ordinal()];
+    }
+}
@@ -2,90 +2,53 @@ package chess.calculators;
 
 import chess.*;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
-
 public class PawnMovesCalculator implements PieceMovesCalculator {
 
     @Override
-    public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        if (board.getPiece(myPosition) == null) {
-            return Collections.emptyList();
-        }
-
-        Collection<ChessMove> moves = new ArrayList<>();
-        ChessPiece pawn = board.getPiece(myPosition);
-        if (pawn.getPieceType() != ChessPiece.PieceType.PAWN) {
-            return moves;
+    public void generateMoves(ChessBoard board, int square, MoveBuffer moves) {
+        ChessPiece pawn = board.getPiece(square);
+        if (pawn == null || pawn.getPieceType() != ChessPiece.PieceType.PAWN) {
+            return;
         }
 
-        int direction = pawn.getTeamColor() == ChessGame.TeamColor.WHITE ? 1 : -1;
-        int startRow = pawn.getTeamColor() == ChessGame.TeamColor.WHITE ? 2 : 7;
-        int promotionRow = pawn.getTeamColor() == ChessGame.TeamColor.WHITE ? 8 : 1;
-
-        int row = myPosition.getRow();
-        int col = myPosition.getColumn();
-        int newRow = row + direction;
-
-        if (newRow >= 1 && newRow <= 8) {
-
-            // normal move
-            ChessPosition oneForward = new ChessPosition(newRow, col);
-            if (board.getPiece(oneForward) == null) {
+        ChessGame.TeamColor color = pawn.getTeamColor();
+        int direction = color == ChessGame.TeamColor.WHITE ? 8 : -8;
+        int startRow = color == ChessGame.TeamColor.WHITE ? 2 : 7;
+        int promotionRow = color == ChessGame.TeamColor.WHITE ? 8 : 1;
 
-                if (oneForward.getRow() == promotionRow) {
-                    moves.add(new ChessMove(myPosition, oneForward, ChessPiece.PieceType.QUEEN));
-                    moves.add(new ChessMove(myPosition, oneForward, ChessPiece.PieceType.ROOK));
-                    moves.add(new ChessMove(myPosition, oneForward, ChessPiece.PieceType.BISHOP));
-                    moves.add(new ChessMove(myPosition, oneForward, ChessPiece.PieceType.KNIGHT));
-                } else {
-                    moves.add(new ChessMove(myPosition, oneForward, null));
-                }
+        int row = Bitboards.row(square);
+        if (row == promotionRow) {
+            return;
+        }
+        long occupied = board.getOccupied();
 
-                // first move
-                if (row == startRow) {
-                    ChessPosition twoForward = new ChessPosition(row + (direction*2), col);
-                    if (board.getPiece(twoForward) == null) {
-                        moves.add(new ChessMove(myPosition, twoForward, null));
-                    }
-                }
-            }
+        // normal move
+        int oneForward = square + direction;
+        if ((occupied & Bitboards.bit(oneForward)) == 0) {
+            addPawnMove(moves, square, oneForward, promotionRow);
 
-            // Capture left
-            if (col - 1 >= 1) {
-                ChessPosition diagLeft = new ChessPosition(row + direction, col - 1);
-                ChessPiece target1 = board.getPiece(diagLeft);
-                if (target1 != null && target1.getTeamColor() != pawn.getTeamColor()) {
-                    if (diagLeft.getRow() == promotionRow) {
-                        moves.add(new ChessMove(myPosition, diagLeft, ChessPiece.PieceType.QUEEN));
-                        moves.add(new ChessMove(myPosition, diagLeft, ChessPiece.PieceType.ROOK));
-                        moves.add(new ChessMove(myPosition, diagLeft, ChessPiece.PieceType.BISHOP));
-                        moves.add(new ChessMove(myPosition, diagLeft, ChessPiece.PieceType.KNIGHT));
-                    } else {
-                        moves.add(new ChessMove(myPosition, diagLeft, null));
-                    }
-                }
+            // first move
+            int twoForward = oneForward + direction;
+            if (row == startRow && (occupied & Bitboards.bit(twoForward)) == 0) {
+                moves.add(PackedMove.of(square, twoForward));
             }
+        }
 
-// Capture right
-            if (col + 1 <= 8) {
-                ChessPosition diagRight = new ChessPosition(row + direction, col + 1);
-                ChessPiece target2 = board.getPiece(diagRight);
-                if (target2 != null && target2.getTeamColor() != pawn.getTeamColor()) {
-                    if (diagRight.getRow() == promotionRow) {
-                        moves.add(new ChessMove(myPosition, diagRight, ChessPiece.PieceType.QUEEN));
-                        moves.add(new ChessMove(myPosition, diagRight, ChessPiece.PieceType.ROOK));
-                        moves.add(new ChessMove(myPosition, diagRight, ChessPiece.PieceType.BISHOP));
-                        moves.add(new ChessMove(myPosition, diagRight, ChessPiece.PieceType.KNIGHT));
-                    } else {
-                        moves.add(new ChessMove(myPosition, diagRight, null));
-                    }
-                }
-            }
+        // captures
+        ChessGame.TeamColor enemy = color == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        long captures = Bitboards.pawnAttacks(color, square) & board.getPieces(enemy);
+        while (captures != 0) {
+            addPawnMove(moves, square, Long.numberOfTrailingZeros(captures), promotionRow);
+            captures &= captures - 1;
         }
+    }
 
-        return moves;
+    private static void addPawnMove(MoveBuffer moves, int from, int to, int promotionRow) {
+        if (Bitboards.row(to) == promotionRow) {
+            moves.addPromotions(from, to);
+        } else {
+            moves.add(PackedMove.of(from, to));
+        }
     }
 }
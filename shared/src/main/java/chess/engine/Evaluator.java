@@ -0,0 +1,44 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.PieceSquareTables;
+
+/**
+ * Static evaluation of a position for the search, in centipawns from the point
+ * of view of the side to move.
+ * <p>
+ * The score is tapered: the board's middlegame and endgame
+ * {@link PieceSquareTables piece-square} totals are blended by how much
+ * material is left, so a king is steered from shelter towards the centre and
+ * pawns gain value as pieces come off. The board keeps those totals up to date
+ * as moves are made and unmade, so evaluating a position does not look at its
+ * pieces at all.
+ */
+public class Evaluator {
+    // Indexed by PieceType ordinal; the king is never traded so it counts for nothing
+    private static final int[] VALUES = {0, 900, 330, 320, 500, 100};
+
+    /**
+     * @return the nominal value of a piece type in centipawns
+     */
+    public static int value(ChessPiece.PieceType type) {
+        return VALUES[type.ordinal()];
+    }
+
+    /**
+     * Scores a position
+     *
+     * @param game the position to score
+     * @return the score in centipawns, positive when the side to move is ahead
+     */
+    public int evaluate(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        // Promotions can push the phase past its opening value
+        int phase = Math.min(board.getPhase(), PieceSquareTables.MAX_PHASE);
+        int score = (board.getMiddlegameScore() * phase
+                + board.getEndgameScore() * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        return game.getTeamTurn() == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,165 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.MoveBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.random.RandomGenerator;
+
+/**
+ * A read-only opening book: for each known position, the moves played from it
+ * and how strongly each is preferred.
+ * <p>
+ * The book file is memory-mapped rather than read, so opening a book costs
+ * nothing up front and the operating system pages in only the parts lookups
+ * touch. The file is a {@link #MAGIC} header followed by fixed-size entries of
+ * a {@link ChessGame#positionKey() position key} ({@code long}), a
+ * {@link chess.PackedMove packed move} ({@code short}) and a weight
+ * ({@code short}, unsigned), all big-endian and sorted by key and then by
+ * descending weight, so a position's moves are found by binary search and lie
+ * next to each other. Lookups read the mapped buffer with absolute gets and
+ * never allocate. {@link OpeningBookWriter} builds book files.
+ * <p>
+ * A book is safe to share between threads.
+ */
+public final class OpeningBook {
+    public static final int MAGIC = 0x43424B31; // "CBK1"
+    static final int HEADER_BYTES = 8;
+    static final int ENTRY_BYTES = 12;
+
+    private final ByteBuffer entries;
+    private final int size;
+
+    private OpeningBook(ByteBuffer entries) {
+        this.entries = entries;
+        this.size = entries.capacity() / ENTRY_BYTES;
+    }
+
+    /**
+     * Maps a book file
+     *
+     * @param path the book file
+     * @return the book
+     * @throws IOException if the file cannot be read or is not a book
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.capacity() < HEADER_BYTES || mapped.getInt(0) != MAGIC
+                    || mapped.getInt(4) != (mapped.capacity() - HEADER_BYTES) / ENTRY_BYTES
+                    || (mapped.capacity() - HEADER_BYTES) % ENTRY_BYTES != 0) {
+                throw new IOException("Not an opening book: " + path);
+            }
+            return new OpeningBook(mapped.slice(HEADER_BYTES, mapped.capacity() - HEADER_BYTES));
+        }
+    }
+
+    /**
+     * @return the number of position/move entries in the book
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return True if the book has moves for the position
+     */
+    public boolean contains(ChessGame game) {
+        return firstIndex(game.positionKey()) >= 0;
+    }
+
+    /**
+     * Picks a book move for a position at random, in proportion to the moves'
+     * weights
+     *
+     * @param game   the position
+     * @param random the source of randomness
+     * @return the {@link chess.PackedMove packed move}, or 0 if the position is not in the book
+     */
+    public int pickMove(ChessGame game, RandomGenerator random) {
+        long key = game.positionKey();
+        int first = firstIndex(key);
+        if (first < 0) {
+            return 0;
+        }
+        int total = 0;
+        for (int i = first; i < size && key(i) == key; i++) {
+            total += weight(i);
+        }
+        if (total == 0) {
+            return move(first);
+        }
+        int choice = random.nextInt(total);
+        for (int i = first; ; i++) {
+            choice -= weight(i);
+            if (choice < 0) {
+                return move(i);
+            }
+        }
+    }
+
+    /**
+     * @return the most heavily weighted book move for a position, or 0 if the
+     * position is not in the book
+     */
+    public int bestMove(ChessGame game) {
+        // Each position's heaviest move comes first
+        int first = firstIndex(game.positionKey());
+        return first < 0 ? 0 : move(first);
+    }
+
+    /**
+     * Appends every book move for a position to a buffer, most heavily
+     * weighted first
+     *
+     * @return the number of moves appended
+     */
+    public int moves(ChessGame game, MoveBuffer moves) {
+        long key = game.positionKey();
+        int first = firstIndex(key);
+        if (first < 0) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = first; i < size && key(i) == key; i++, count++) {
+            moves.add(move(i));
+        }
+        return count;
+    }
+
+    /**
+     * @return the index of the first entry with the key, or -1 if there is none
+     */
+    private int firstIndex(long key) {
+        int low = 0;
+        int high = size;
+        // Lower bound: the first entry whose key is not below the one wanted
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key(mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < size && key(low) == key ? low : -1;
+    }
+
+    private long key(int index) {
+        return entries.getLong(index * ENTRY_BYTES);
+    }
+
+    private int move(int index) {
+        return entries.getShort(index * ENTRY_BYTES + 8) & 0xFFFF;
+    }
+
+    private int weight(int index) {
+        return entries.getShort(index * ENTRY_BYTES + 10) & 0xFFFF;
+    }
+}
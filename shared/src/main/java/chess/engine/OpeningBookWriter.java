@@ -0,0 +1,123 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.InvalidMoveException;
+import chess.PackedMove;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds {@link OpeningBook} files. Positions and moves are collected in
+ * memory, with repeated moves adding up their weights, and written out sorted.
+ */
+public final class OpeningBookWriter {
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    // Position key -> packed move -> weight
+    private final Map<Long, Map<Integer, Integer>> weights = new HashMap<>();
+
+    /**
+     * Adds weight to a move from a position
+     *
+     * @param game   the position
+     * @param move   the {@link PackedMove packed move} played from it
+     * @param weight how much to prefer the move
+     */
+    public void add(ChessGame game, int move, int weight) {
+        weights.computeIfAbsent(game.positionKey(), key -> new HashMap<>()).merge(move, weight, Integer::sum);
+    }
+
+    /**
+     * Plays a game from the starting position and adds each of its first
+     * moves with a weight of 1, so moves played in more games weigh more
+     *
+     * @param moves    the moves in coordinate notation, separated by whitespace
+     * @param maxPlies how many moves of the game to add
+     * @throws InvalidMoveException if a move is illegal
+     */
+    public void addGame(String moves, int maxPlies) throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        int plies = 0;
+        for (String text : moves.trim().split("\\s+")) {
+            if (text.isEmpty() || plies++ >= maxPlies) {
+                break;
+            }
+            int move = PackedMove.parse(text);
+            add(game, move, 1);
+            game.makeMove(PackedMove.toChessMove(move));
+        }
+    }
+
+    /**
+     * @return the number of position/move entries collected so far
+     */
+    public int size() {
+        int size = 0;
+        for (Map<Integer, Integer> moves : weights.values()) {
+            size += moves.size();
+        }
+        return size;
+    }
+
+    /**
+     * Writes the collected entries as a book file
+     */
+    public void write(Path path) throws IOException {
+        List<long[]> entries = new ArrayList<>(size());
+        for (Map.Entry<Long, Map<Integer, Integer>> position : weights.entrySet()) {
+            for (Map.Entry<Integer, Integer> move : position.getValue().entrySet()) {
+                entries.add(new long[]{position.getKey(), move.getKey(), Math.min(move.getValue(), MAX_WEIGHT)});
+            }
+        }
+        // The book binary-searches on signed keys, heaviest move first for each
+        entries.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(b[2], a[2]));
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(entries.size());
+            for (long[] entry : entries) {
+                out.writeLong(entry[0]);
+                out.writeShort((int) entry[1]);
+                out.writeShort((int) entry[2]);
+            }
+        }
+    }
+
+    /**
+     * Builds a book from a text file with one game per line, each a list of
+     * moves in coordinate notation ({@code e2e4 e7e5 g1f3 ...}). Lines that
+     * are blank or start with {@code #} are skipped.
+     * <p>
+     * Usage: {@code OpeningBookWriter <games.txt> <book file> [max plies per game]}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: OpeningBookWriter <games.txt> <book file> [max plies per game]");
+            return;
+        }
+        int maxPlies = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        OpeningBookWriter writer = new OpeningBookWriter();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(Path.of(args[0]))) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                writer.addGame(line, maxPlies);
+            } catch (InvalidMoveException | IllegalArgumentException e) {
+                System.err.printf("Skipping line %d: %s%n", lineNumber, e.getMessage());
+            }
+        }
+        writer.write(Path.of(args[1]));
+        System.out.printf("Wrote %d entries to %s%n", writer.size(), args[1]);
+    }
+}
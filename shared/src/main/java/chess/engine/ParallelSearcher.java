@@ -0,0 +1,186 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Fen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Searches one position on several threads at once ("Lazy SMP").
+ * <p>
+ * Every thread runs an ordinary {@link Searcher} on its own copy of the game,
+ * and they all share one {@link TranspositionTable}. Nothing else is
+ * coordinated: the threads speed each other up by filling the table with
+ * results the others then find instead of searching. Half of the helpers start
+ * one ply deeper than the main thread so they spread out over different parts
+ * of the tree rather than duplicating it. When the main thread finishes, the
+ * helpers are stopped and the deepest completed result wins.
+ * <p>
+ * A parallel searcher owns a pool of helper threads and must be
+ * {@link #close() closed}. It runs one search at a time.
+ */
+public class ParallelSearcher implements AutoCloseable {
+    private final int threads;
+    private final TranspositionTable table;
+    private final Searcher[] searchers;
+    private final ExecutorService helpers;
+
+    /**
+     * @param threads the number of threads to search with, the calling thread included
+     */
+    public ParallelSearcher(int threads) {
+        this(threads, new TranspositionTable(Searcher.DEFAULT_TABLE_MB * threads), new Evaluator());
+    }
+
+    /**
+     * @param threads   the number of threads to search with, the calling thread included
+     * @param table     the table the threads share
+     * @param evaluator scores positions for every thread
+     */
+    public ParallelSearcher(int threads, TranspositionTable table, Evaluator evaluator) {
+        this(threads, table, evaluator, null);
+    }
+
+    /**
+     * @param threads   the number of threads to search with, the calling thread included
+     * @param table     the table the threads share
+     * @param evaluator scores positions for every thread
+     * @param book      book moves to play before searching, or null
+     */
+    public ParallelSearcher(int threads, TranspositionTable table, Evaluator evaluator, OpeningBook book) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("A search needs at least one thread");
+        }
+        this.threads = threads;
+        this.table = table;
+        this.searchers = new Searcher[threads];
+        for (int i = 0; i < threads; i++) {
+            searchers[i] = new Searcher(evaluator, table, book);
+        }
+        this.helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int threads() {
+        return threads;
+    }
+
+    public TranspositionTable table() {
+        return table;
+    }
+
+    /**
+     * Searches a position for the side to move on every thread
+     *
+     * @param position the position to search; it is not modified
+     * @param limits   when to stop; a node limit is split evenly between threads
+     * @return a book move if there is one, otherwise the deepest result any
+     * thread completed, with the nodes of all threads and the wall-clock time
+     * of the whole search
+     */
+    public synchronized SearchResult search(ChessGame position, SearchLimits limits) {
+        SearchResult booked = searchers[0].bookMove(position);
+        if (booked != null) {
+            return booked;
+        }
+        long start = System.nanoTime();
+        table.newSearch();
+        SearchLimits perThread = limits.maxNodes() == 0 ? limits
+                : new SearchLimits(limits.maxDepth(), limits.timeMillis(), Math.max(1, limits.maxNodes() / threads));
+        AtomicBoolean stop = new AtomicBoolean();
+
+        List<Future<SearchResult>> helperResults = new ArrayList<>();
+        for (int i = 1; i < threads; i++) {
+            Searcher helper = searchers[i];
+            int startDepth = 1 + i % 2;
+            helperResults.add(helpers.submit(() -> helper.search(position, perThread, startDepth, stop)));
+        }
+
+        SearchResult best = searchers[0].search(position, perThread, 1, stop);
+        stop.set(true);
+
+        long nodes = best.nodes();
+        for (Future<SearchResult> future : helperResults) {
+            SearchResult result = join(future);
+            nodes += result.nodes();
+            if (result.depth() > best.depth() && result.bestMove() != null) {
+                best = result;
+            }
+        }
+        return new SearchResult(best.bestMove(), best.score(), best.depth(), nodes, System.nanoTime() - start,
+                best.principalVariation());
+    }
+
+    private static SearchResult join(Future<SearchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for search threads", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search thread failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    /**
+     * Measures how search speed scales with threads: the same position is
+     * searched to a fixed depth with 1, 2, 4, ... threads up to the number of
+     * cores, and nodes per second and time to depth are reported for each.
+     * <p>
+     * Usage: {@code ParallelSearcher <depth> [fen] [--threads max]}
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: ParallelSearcher <depth> [fen] [--threads max]");
+            System.exit(1);
+        }
+        int depth = Integer.parseInt(args[0]);
+        String fen = Fen.STARTING_POSITION;
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--threads") && i + 1 < args.length) {
+                maxThreads = Integer.parseInt(args[++i]);
+            } else {
+                fen = args[i];
+            }
+        }
+        ChessGame game = Fen.parse(fen);
+        // Let the JIT compile the search before anything is timed
+        new Searcher().search(game, SearchLimits.depth(depth));
+
+        System.out.printf("%7s %12s %10s %12s %8s %8s%n", "threads", "nodes", "ms", "nps", "speedup", "scaling");
+        double baseNps = 0;
+        double baseMillis = 0;
+        for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+            try (ParallelSearcher searcher = new ParallelSearcher(threads)) {
+                SearchResult result = searcher.search(game, SearchLimits.depth(depth));
+                double millis = result.elapsedNanos() / 1_000_000.0;
+                if (threads == 1) {
+                    baseNps = result.nodesPerSecond();
+                    baseMillis = millis;
+                }
+                System.out.printf("%7d %12d %10.0f %12.0f %7.2fx %7.2fx%n", threads, result.nodes(), millis,
+                        result.nodesPerSecond(), baseMillis / millis, result.nodesPerSecond() / baseNps);
+            }
+            if (threads >= maxThreads) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package chess.engine;
+
+/**
+ * Bounds on how long a {@link Searcher} may think. A search stops at whichever
+ * limit is reached first; a time or node limit of 0 means unlimited. The first
+ * iteration is always completed so there is a move to play.
+ *
+ * @param maxDepth   deepest iteration to search, in plies
+ * @param timeMillis wall-clock budget in milliseconds, or 0 for none
+ * @param maxNodes   node budget, or 0 for none
+ */
+public record SearchLimits(int maxDepth, long timeMillis, long maxNodes) {
+
+    public SearchLimits {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Search depth must be at least 1");
+        }
+        if (timeMillis < 0 || maxNodes < 0) {
+            throw new IllegalArgumentException("Search limits cannot be negative");
+        }
+    }
+
+    /**
+     * @return limits that search to a fixed depth with no time or node limit
+     */
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, 0, 0);
+    }
+
+    /**
+     * @return limits that deepen until the time budget runs out
+     */
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(Searcher.MAX_PLY, timeMillis, 0);
+    }
+}
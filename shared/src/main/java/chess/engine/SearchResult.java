@@ -0,0 +1,51 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+import java.util.List;
+
+/**
+ * The outcome of a search
+ *
+ * @param bestMove           the move to play, or null if the side to move has no legal move
+ * @param score              the score of the position in centipawns from the side to
+ *                           move's point of view; see {@link #isMate()}
+ * @param depth              the deepest iteration that was completed, or 0 for a book move
+ * @param nodes              positions visited, quiescence included
+ * @param elapsedNanos       wall-clock time taken
+ * @param principalVariation the line the search expects, starting with the best move
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes, long elapsedNanos,
+                           List<ChessMove> principalVariation) {
+
+    public double nodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * @return True if the move was taken from an opening book rather than searched
+     */
+    public boolean fromBook() {
+        // A first iteration stopped early also has depth 0, but searched some nodes
+        return depth == 0 && nodes == 0 && bestMove != null;
+    }
+
+    /**
+     * @return True if the score is a forced mate, for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Searcher.MATE - Searcher.MAX_PLY;
+    }
+
+    /**
+     * @return the number of moves until mate, negative if the side to move is
+     * being mated, or 0 if the score is not a mate
+     */
+    public int mateInMoves() {
+        if (!isMate()) {
+            return 0;
+        }
+        int plies = Searcher.MATE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies / 2);
+    }
+}
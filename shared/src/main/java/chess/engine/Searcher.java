@@ -0,0 +1,510 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.MoveBuffer;
+import chess.PackedMove;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Finds the best move in a position with an iterative deepening alpha-beta
+ * search.
+ * <p>
+ * Each iteration searches one ply deeper than the last, so there is always a
+ * complete answer to fall back on when the time or node budget runs out. Moves
+ * are tried best-first: the previous iteration's best move at the root, then
+ * captures by most valuable victim / least valuable attacker, then quiet moves
+ * that caused a cutoff at the same ply (killers), then quiet moves by how
+ * often they have caused cutoffs anywhere (history). A move remembered in the
+ * {@link TranspositionTable} for the position is tried before all of them, and
+ * a deep enough remembered score ends the node outright. At the horizon a
+ * quiescence search keeps resolving captures so a position is never scored in
+ * the middle of an exchange, and searches every evasion when in check so a
+ * mate at the horizon is still seen as one.
+ * <p>
+ * When given an {@link OpeningBook}, a search first looks the position up in
+ * it and plays a book move without searching at all.
+ * <p>
+ * A searcher keeps its buffers and heuristics between searches to avoid
+ * allocating, so it is not thread-safe; use one per thread. The game passed to
+ * {@link #search} is copied and never modified.
+ */
+public class Searcher {
+    public static final int MATE = 100_000;
+    public static final int MAX_PLY = 64;
+
+    public static final int DEFAULT_TABLE_MB = 16;
+
+    private static final int INFINITY = MATE + 1;
+    // How many nodes pass between clock reads
+    private static final int CHECK_INTERVAL = 1024;
+    // Move ordering bands, highest first
+    private static final int HASH_MOVE_SCORE = 4_000_000;
+    private static final int PREVIOUS_BEST_SCORE = 3_000_000;
+    private static final int CAPTURE_SCORE = 2_000_000;
+    private static final int KILLER_SCORE = 1_000_000;
+    private static final int HISTORY_LIMIT = KILLER_SCORE / 2;
+
+    private final Evaluator evaluator;
+    private final TranspositionTable table;
+    private final OpeningBook book;
+    private final MoveBuffer[] moves = new MoveBuffer[MAX_PLY + 1];
+    private final int[][] moveScores = new int[MAX_PLY + 1][];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final int[][] history = new int[64][64];
+    // Triangular principal variation table: pv[ply] holds the line from ply onwards
+    private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+    // Position keys along the current line, for repetition detection
+    private final long[] pathKeys = new long[MAX_PLY + 1];
+
+    private ChessGame game;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+    private int previousBest;
+    // Best root move and score of the iteration in progress, kept in case it is stopped
+    private int rootBest;
+    private int rootScore;
+    private boolean canAbort;
+    private boolean aborted;
+    private volatile boolean stopRequested;
+    private AtomicBoolean sharedStop;
+
+    public Searcher() {
+        this(new Evaluator(), new TranspositionTable(DEFAULT_TABLE_MB));
+    }
+
+    /**
+     * @param evaluator scores positions at the leaves
+     * @param table     remembers results between positions and searches; it may
+     *                  be shared with searchers on other threads
+     */
+    public Searcher(Evaluator evaluator, TranspositionTable table) {
+        this(evaluator, table, null);
+    }
+
+    /**
+     * @param evaluator scores positions at the leaves
+     * @param table     remembers results between positions and searches; it may
+     *                  be shared with searchers on other threads
+     * @param book      book moves to play before searching, or null
+     */
+    public Searcher(Evaluator evaluator, TranspositionTable table, OpeningBook book) {
+        this.evaluator = evaluator;
+        this.table = table;
+        this.book = book;
+        for (int ply = 0; ply <= MAX_PLY; ply++) {
+            moves[ply] = new MoveBuffer();
+            moveScores[ply] = new int[256];
+        }
+    }
+
+    /**
+     * Searches a position for the side to move
+     *
+     * @param position the position to search; it is not modified
+     * @param limits   when to stop
+     * @return the best move found and the line behind it
+     */
+    public SearchResult search(ChessGame position, SearchLimits limits) {
+        return search(position, limits, null);
+    }
+
+    /**
+     * Searches a position for the side to move, stopping early once a flag is
+     * set, as {@link #stop()} does
+     *
+     * @param stop stops the search when set, or null
+     */
+    public SearchResult search(ChessGame position, SearchLimits limits, AtomicBoolean stop) {
+        SearchResult booked = bookMove(position);
+        if (booked != null) {
+            return booked;
+        }
+        table.newSearch();
+        return search(position, limits, 1, stop);
+    }
+
+    /**
+     * Looks a position up in the opening book
+     *
+     * @return a depth 0 result with a weighted random book move, or null if
+     * there is no book or no legal book move for the position
+     */
+    SearchResult bookMove(ChessGame position) {
+        if (book == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        int move = book.pickMove(position, ThreadLocalRandom.current());
+        if (move == 0) {
+            return null;
+        }
+        // A key collision could name a move that is not legal here
+        MoveBuffer legal = moves[0];
+        legal.clear();
+        position.generateValidMoves(position.getTeamTurn(), legal);
+        for (int i = 0; i < legal.size(); i++) {
+            if (legal.get(i) == move) {
+                ChessMove bookMove = PackedMove.toChessMove(move);
+                return new SearchResult(bookMove, 0, 0, 0, System.nanoTime() - start, List.of(bookMove));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Searches a position starting from a given iteration depth, as the helper
+     * threads of a {@link ParallelSearcher} do. The caller starts the
+     * transposition table's search generation.
+     *
+     * @param startDepth the depth of the first iteration
+     * @param sharedStop an extra stop signal shared by cooperating searchers, or null
+     */
+    SearchResult search(ChessGame position, SearchLimits limits, int startDepth, AtomicBoolean sharedStop) {
+        long start = System.nanoTime();
+        game = new ChessGame(position);
+        nodes = 0;
+        nodeLimit = limits.maxNodes() == 0 ? Long.MAX_VALUE : limits.maxNodes();
+        deadline = limits.timeMillis() == 0 ? Long.MAX_VALUE : start + limits.timeMillis() * 1_000_000;
+        previousBest = 0;
+        rootBest = 0;
+        rootScore = 0;
+        canAbort = false;
+        aborted = false;
+        stopRequested = false;
+        this.sharedStop = sharedStop;
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = 0;
+            plyKillers[1] = 0;
+        }
+        for (int[] fromHistory : history) {
+            Arrays.fill(fromHistory, 0);
+        }
+
+        int score = 0;
+        int completedDepth = 0;
+        int[] line = new int[0];
+        int maxDepth = Math.min(limits.maxDepth(), MAX_PLY);
+        for (int depth = Math.min(startDepth, maxDepth); depth <= maxDepth; depth++) {
+            int iterationScore = negamax(depth, 0, -INFINITY, INFINITY);
+            if (aborted) {
+                if (completedDepth == 0) {
+                    // Stopped during the first iteration: fall back on whatever it found
+                    score = rootScore;
+                    line = rootBest != 0 ? new int[]{rootBest} : firstLegalMove();
+                }
+                break;
+            }
+            score = iterationScore;
+            completedDepth = depth;
+            line = Arrays.copyOf(pv[0], pvLength[0]);
+            previousBest = line.length > 0 ? line[0] : 0;
+            // From here on the budget may cut an iteration short
+            canAbort = true;
+            if (Math.abs(score) >= MATE - MAX_PLY || line.length == 0) {
+                break;
+            }
+        }
+
+        List<ChessMove> principalVariation = new ArrayList<>(line.length);
+        for (int move : line) {
+            principalVariation.add(PackedMove.toChessMove(move));
+        }
+        ChessMove bestMove = principalVariation.isEmpty() ? null : principalVariation.get(0);
+        return new SearchResult(bestMove, score, completedDepth, nodes, System.nanoTime() - start,
+                List.copyOf(principalVariation));
+    }
+
+    private int[] firstLegalMove() {
+        MoveBuffer list = moves[0];
+        list.clear();
+        game.generateValidMoves(game.getTeamTurn(), list);
+        return list.isEmpty() ? new int[0] : new int[]{list.get(0)};
+    }
+
+    /**
+     * Asks a running search to stop as soon as it can. The search still
+     * returns the result of its last completed iteration, or if it is still
+     * in its first, the best move that iteration has found so far.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if (depth <= 0) {
+            return quiescence(ply, alpha, beta);
+        }
+        nodes++;
+        if (shouldStop()) {
+            return 0;
+        }
+        pathKeys[ply] = game.positionKey();
+        if (ply > 0 && isRepetition(ply)) {
+            return 0;
+        }
+        if (ply >= MAX_PLY) {
+            return evaluator.evaluate(game);
+        }
+
+        long entry = table.probe(pathKeys[ply]);
+        int hashMove = TranspositionTable.move(entry);
+        // The root always searches, so there is a principal variation to report
+        if (entry != 0 && ply > 0 && TranspositionTable.depth(entry) >= depth) {
+            int score = fromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                    || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                return score;
+            }
+        }
+
+        MoveBuffer list = moves[ply];
+        list.clear();
+        game.generateValidMoves(game.getTeamTurn(), list);
+        if (list.isEmpty()) {
+            return game.isInCheck(game.getTeamTurn()) ? -MATE + ply : 0;
+        }
+        scoreMoves(list, ply, hashMove);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = 0;
+        for (int i = 0; i < list.size(); i++) {
+            int move = nextMove(list, moveScores[ply], i);
+            game.makeMove(move);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            game.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+            if (score > alpha) {
+                alpha = score;
+                updatePrincipalVariation(ply, move);
+                if (ply == 0) {
+                    rootBest = move;
+                    rootScore = score;
+                }
+                if (score >= beta) {
+                    if (isQuiet(move)) {
+                        rememberCutoff(move, ply, depth);
+                    }
+                    break;
+                }
+            }
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        table.store(pathKeys[ply], bestMove, depth, bound, toTable(bestScore, ply));
+        return bestScore;
+    }
+
+    /**
+     * Mate scores count plies from the root; the table stores them counted from
+     * the position itself so they stay right when reached along another path
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -MATE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    private int quiescence(int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        nodes++;
+        if (shouldStop()) {
+            return 0;
+        }
+
+        if (ply >= MAX_PLY) {
+            return evaluator.evaluate(game);
+        }
+
+        MoveBuffer list = moves[ply];
+        list.clear();
+        game.generateValidMoves(game.getTeamTurn(), list);
+        int bestScore;
+        if (game.isInCheck(game.getTeamTurn())) {
+            // No standing pat in check: every evasion is searched, and having none is mate
+            if (list.isEmpty()) {
+                return -MATE + ply;
+            }
+            bestScore = -INFINITY;
+        } else {
+            // Standing pat: the side to move is assumed to have a quiet move at least this good
+            bestScore = evaluator.evaluate(game);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+            if (bestScore > alpha) {
+                alpha = bestScore;
+            }
+            int tactical = 0;
+            for (int i = 0; i < list.size(); i++) {
+                int move = list.get(i);
+                if (!isQuiet(move)) {
+                    list.set(tactical++, move);
+                }
+            }
+            list.truncate(tactical);
+        }
+        scoreMoves(list, ply, 0);
+
+        for (int i = 0; i < list.size(); i++) {
+            int move = nextMove(list, moveScores[ply], i);
+            game.makeMove(move);
+            int score = -quiescence(ply + 1, -beta, -alpha);
+            game.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                if (score >= beta) {
+                    break;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    private boolean shouldStop() {
+        // A stop request is honoured at once; the budget only once there is a completed iteration
+        if (!aborted && (stopRequested || (sharedStop != null && sharedStop.get())
+                || (canAbort && (nodes >= nodeLimit
+                || (nodes % CHECK_INTERVAL == 0 && System.nanoTime() >= deadline))))) {
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    private boolean isRepetition(int ply) {
+        for (int earlier = ply - 2; earlier >= 0; earlier -= 2) {
+            if (pathKeys[earlier] == pathKeys[ply]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void updatePrincipalVariation(int ply, int move) {
+        pv[ply][ply] = move;
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, pvLength[ply + 1] - (ply + 1));
+        pvLength[ply] = pvLength[ply + 1];
+    }
+
+    private boolean isQuiet(int move) {
+        return game.getBoard().getPiece(PackedMove.to(move)) == null && PackedMove.promotion(move) == null;
+    }
+
+    private void rememberCutoff(int move, int ply, int depth) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] fromHistory = history[PackedMove.from(move)];
+        int to = PackedMove.to(move);
+        fromHistory[to] += depth * depth;
+        if (fromHistory[to] > HISTORY_LIMIT) {
+            // Age every entry so recent cutoffs keep counting for more
+            for (int[] row : history) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] /= 2;
+                }
+            }
+        }
+    }
+
+    private void scoreMoves(MoveBuffer list, int ply, int hashMove) {
+        int[] scores = moveScores[ply];
+        if (scores.length < list.size()) {
+            scores = moveScores[ply] = new int[list.size()];
+        }
+        ChessBoard board = game.getBoard();
+        for (int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            ChessPiece victim = board.getPiece(PackedMove.to(move));
+            ChessPiece.PieceType promotion = PackedMove.promotion(move);
+            int score;
+            if (move == hashMove && hashMove != 0) {
+                score = HASH_MOVE_SCORE;
+            } else if (ply == 0 && move == previousBest) {
+                score = PREVIOUS_BEST_SCORE;
+            } else if (victim != null || promotion != null) {
+                ChessPiece attacker = board.getPiece(PackedMove.from(move));
+                score = CAPTURE_SCORE - Evaluator.value(attacker.getPieceType());
+                if (victim != null) {
+                    score += 10 * Evaluator.value(victim.getPieceType());
+                }
+                if (promotion != null) {
+                    score += Evaluator.value(promotion);
+                }
+            } else if (move == killers[ply][0]) {
+                score = KILLER_SCORE + 1;
+            } else if (move == killers[ply][1]) {
+                score = KILLER_SCORE;
+            } else {
+                score = history[PackedMove.from(move)][PackedMove.to(move)];
+            }
+            scores[i] = score;
+        }
+    }
+
+    /**
+     * Selection-sorts one step: swaps the best-scored move at or after
+     * {@code index} into place and returns it. Cutoffs usually come early, so
+     * most of the list is never sorted.
+     */
+    private static int nextMove(MoveBuffer list, int[] scores, int index) {
+        int best = index;
+        for (int i = index + 1; i < list.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            int move = list.get(best);
+            list.set(best, list.get(index));
+            list.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return list.get(index);
+    }
+}
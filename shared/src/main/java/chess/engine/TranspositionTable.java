@@ -0,0 +1,178 @@
+package chess.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size hash table of search results keyed by {@link chess.ChessGame#positionKey()
+ * position key}, shared by any number of search threads without locking.
+ * <p>
+ * Each slot is two {@code long}s: the entry's data (depth, bound, score, best
+ * move and the search generation it was written in) and the position key XORed
+ * with that data. Writers store both words with plain writes, so two threads
+ * writing the same slot at once can leave one thread's key next to the other's
+ * data. A reader XORs the words back together and only accepts the entry if
+ * the result is the key it asked for, so a torn entry reads as a miss rather
+ * than as wrong data.
+ */
+public class TranspositionTable {
+    public static final int UPPER_BOUND = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int EXACT = 3;
+
+    private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+
+    private final long[] table;
+    private final int mask;
+    private volatile int generation;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+
+    /**
+     * Creates a table that uses at most the given amount of memory. The entry
+     * count is rounded down to a power of two.
+     *
+     * @param megabytes the size of the table in MiB
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Transposition table needs at least 1 MB");
+        }
+        long entries = Long.highestOneBit((long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+        // Java arrays top out just short of 2^31 elements
+        entries = Math.min(entries, 1L << 29);
+        this.table = new long[(int) entries * 2];
+        this.mask = (int) entries - 1;
+    }
+
+    /**
+     * Looks a position up
+     *
+     * @param key the position key
+     * @return the packed entry for the position, or 0 if there is none; read
+     * it with {@link #move}, {@link #depth}, {@link #bound} and {@link #score}
+     */
+    public long probe(long key) {
+        probes.increment();
+        int slot = slot(key);
+        long data = table[slot + 1];
+        if ((table[slot] ^ data) == key && data != 0) {
+            hits.increment();
+            return data;
+        }
+        if (data != 0) {
+            collisions.increment();
+        }
+        return 0;
+    }
+
+    /**
+     * Records a search result. An entry for the same position is replaced by a
+     * result at least as deep, and an entry for another position is replaced
+     * unless it is deeper and from the current search.
+     *
+     * @param key   the position key
+     * @param move  the best {@link chess.PackedMove packed move} found, or 0
+     * @param depth the remaining depth the position was searched to
+     * @param bound {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}
+     * @param score the score, from the side to move's point of view
+     */
+    public void store(long key, int move, int depth, int bound, int score) {
+        int slot = slot(key);
+        long existing = table[slot + 1];
+        if (existing != 0) {
+            boolean samePosition = (table[slot] ^ existing) == key;
+            boolean current = generation(existing) == (generation & 0x3F);
+            if (depth < depth(existing) && (samePosition || current) && bound != EXACT) {
+                return;
+            }
+            if (samePosition && move == 0) {
+                // Keep the best move found by an earlier search of this position
+                move = move(existing);
+            }
+        }
+        long data = (move & 0xFFFFL)
+                | (long) Math.min(depth, 0xFF) << 16
+                | (long) bound << 24
+                | (long) (generation & 0x3F) << 26
+                | (long) score << 32;
+        table[slot] = key ^ data;
+        table[slot + 1] = data;
+    }
+
+    /**
+     * Starts a new search generation, so entries from earlier searches are
+     * overwritten in preference to current ones
+     */
+    public void newSearch() {
+        generation++;
+    }
+
+    /**
+     * Empties the table and resets its counters
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        probes.reset();
+        hits.reset();
+        collisions.reset();
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 16) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 24) & 0x3;
+    }
+
+    public static int score(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    private static int generation(long entry) {
+        return (int) (entry >>> 26) & 0x3F;
+    }
+
+    /**
+     * @return the number of entries the table holds
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public long probes() {
+        return probes.sum();
+    }
+
+    /**
+     * @return probes that found an entry for the position asked for
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return probes that found a slot holding another position (or a torn write)
+     */
+    public long collisions() {
+        return collisions.sum();
+    }
+
+    public double hitRate() {
+        long total = probes.sum();
+        return total == 0 ? 0 : (double) hits.sum() / total;
+    }
+
+    private int slot(long key) {
+        // The low key bits pick the slot; mixing in the high bits spreads keys
+        // that differ only there
+        return (int) ((key ^ (key >>> 32)) & mask) << 1;
+    }
+}
@@ -0,0 +1,23 @@
+package model;
+
+import chess.ChessMove;
+
+import java.util.List;
+
+/**
+ * The engine's verdict on a position. Scores are from white's point of view.
+ *
+ * @param fen                the position analyzed
+ * @param bestMove           the move the engine would play, or null if the side to move has none
+ * @param principalVariation the line the engine expects, starting with the best move
+ * @param score              the evaluation in centipawns, positive when white is better
+ * @param mateIn             moves until mate (positive when white mates, 0 when already
+ *                           checkmated), or null if no mate was found
+ * @param fromBook           True if the move came from the opening book instead of a search
+ * @param depth              the search depth reached, in plies (0 for a book move)
+ * @param nodes              the positions searched
+ * @param timeMillis         how long the search took
+ */
+public record AnalysisData(String fen, ChessMove bestMove, List<ChessMove> principalVariation, int score,
+                           Integer mateIn, boolean fromBook, int depth, long nodes, long timeMillis) {
+}
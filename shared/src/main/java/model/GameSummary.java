@@ -0,0 +1,8 @@
+package model;
+
+/**
+ * A game as shown in a game list: who is playing and what it is called,
+ * without the board
+ */
+public record GameSummary(int gameID, String whiteUsername, String blackUsername, String gameName) {
+}
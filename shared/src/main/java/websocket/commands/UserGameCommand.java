@@ -19,6 +19,11 @@ public class UserGameCommand {
 
     private final ChessMove move;
 
+    // Only used by ANALYZE: a position to analyze instead of the game's, and the time budget
+    private final String fen;
+
+    private final Long timeMillis;
+
     public UserGameCommand(CommandType commandType, String authToken, Integer gameID) {
         this(commandType, authToken, gameID, null);
     }
@@ -28,6 +33,24 @@ public class UserGameCommand {
         this.authToken = authToken;
         this.gameID = gameID;
         this.move = move;
+        this.fen = null;
+        this.timeMillis = null;
+    }
+
+    /**
+     * Creates an ANALYZE command
+     *
+     * @param gameID     the game whose position to analyze, or null when giving a FEN
+     * @param fen        a position to analyze instead, or null
+     * @param timeMillis how long the engine may think, or null for the server default
+     */
+    public UserGameCommand(String authToken, Integer gameID, String fen, Long timeMillis) {
+        this.commandType = CommandType.ANALYZE;
+        this.authToken = authToken;
+        this.gameID = gameID;
+        this.move = null;
+        this.fen = fen;
+        this.timeMillis = timeMillis;
     }
 
     // No-args constructor for deserialization
@@ -36,13 +59,16 @@ public class UserGameCommand {
         this.authToken = null;
         this.gameID = null;
         this.move = null;
+        this.fen = null;
+        this.timeMillis = null;
     }
 
     public enum CommandType {
         CONNECT,
         MAKE_MOVE,
         LEAVE,
-        RESIGN
+        RESIGN,
+        ANALYZE
     }
 
     public CommandType getCommandType() {
@@ -61,6 +87,14 @@ public class UserGameCommand {
         return move;
     }
 
+    public String getFen() {
+        return fen;
+    }
+
+    public Long getTimeMillis() {
+        return timeMillis;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -73,11 +107,13 @@ public class UserGameCommand {
         return getCommandType() == that.getCommandType() &&
                 Objects.equals(getAuthToken(), that.getAuthToken()) &&
                 Objects.equals(getGameID(), that.getGameID()) &&
-                Objects.equals(getMove(), that.getMove());
+                Objects.equals(getMove(), that.getMove()) &&
+                Objects.equals(getFen(), that.getFen()) &&
+                Objects.equals(getTimeMillis(), that.getTimeMillis());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getCommandType(), getAuthToken(), getGameID(), getMove());
+        return Objects.hash(getCommandType(), getAuthToken(), getGameID(), getMove(), getFen(), getTimeMillis());
     }
 }
@@ -2,6 +2,7 @@ package websocket.messages;
 
 import java.util.Objects;
 import chess.ChessGame;
+import model.AnalysisData;
 
 /**
  * Represents a Message the server can send through a WebSocket
@@ -14,11 +15,13 @@ public class ServerMessage {
     private ChessGame game;
     private String errorMessage;
     private String message;
+    private AnalysisData analysis;
 
     public enum ServerMessageType {
         LOAD_GAME,
         ERROR,
-        NOTIFICATION
+        NOTIFICATION,
+        ANALYSIS
     }
 
     public ServerMessage(ServerMessageType type, ChessGame game) {
@@ -26,6 +29,11 @@ public class ServerMessage {
         this.game = game;
     }
 
+    public ServerMessage(ServerMessageType type, AnalysisData analysis) {
+        this.serverMessageType = type;
+        this.analysis = analysis;
+    }
+
     public ServerMessage(ServerMessageType type, String errorMessage, boolean isError) {
         this.serverMessageType = type;
         if (isError) {
@@ -46,6 +54,7 @@ public class ServerMessage {
         this.game = null;
         this.errorMessage = null;
         this.message = null;
+        this.analysis = null;
     }
 
     public ServerMessageType getServerMessageType() {
@@ -64,6 +73,10 @@ public class ServerMessage {
         return message;
     }
 
+    public AnalysisData getAnalysis() {
+        return analysis;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -76,11 +89,12 @@ public class ServerMessage {
         return getServerMessageType() == that.getServerMessageType() &&
                 Objects.equals(getGame(), that.getGame()) &&
                 Objects.equals(getErrorMessage(), that.getErrorMessage()) &&
-                Objects.equals(getMessage(), that.getMessage());
+                Objects.equals(getMessage(), that.getMessage()) &&
+                Objects.equals(getAnalysis(), that.getAnalysis());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getServerMessageType(), getGame(), getErrorMessage(), getMessage());
+        return Objects.hash(getServerMessageType(), getGame(), getErrorMessage(), getMessage(), getAnalysis());
     }
 }
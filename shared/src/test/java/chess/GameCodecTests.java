@@ -0,0 +1,65 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameCodecTests {
+
+    @Test
+    public void roundTripsPositions() {
+        ChessGame game = Fen.parse("r3k2r/pPppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPpP/R3K2R w - - 0 1");
+        Random random = new Random(24);
+        MoveBuffer moves = new MoveBuffer();
+        for (int ply = 0; ply < 60; ply++) {
+            moves.clear();
+            game.generateValidMoves(game.getTeamTurn(), moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            game.makeMove(moves.get(random.nextInt(moves.size())));
+
+            byte[] encoded = GameCodec.encode(game);
+            assertEquals(GameCodec.ENCODED_BYTES, encoded.length);
+            assertEquals(game, GameCodec.decode(encoded));
+            assertEquals(game, GameCodec.fromText(GameCodec.toText(game)));
+        }
+    }
+
+    @Test
+    public void keepsTurnAndState() {
+        ChessGame game = new ChessGame();
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        game.setGameState(ChessGame.GameState.RESIGNED);
+
+        assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR b RESIGNED", GameCodec.toText(game));
+        assertEquals(game, GameCodec.decode(GameCodec.encode(game)));
+        assertEquals(game, GameCodec.fromText(GameCodec.toText(game)));
+    }
+
+    @Test
+    public void readsPlainFen() {
+        assertEquals(new ChessGame(), GameCodec.fromText("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"));
+        assertEquals(new ChessGame(), GameCodec.fromText("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1"));
+        assertEquals(new ChessGame(), GameCodec.fromText(Fen.STARTING_POSITION));
+    }
+
+    @Test
+    public void rejectsMalformedInput() {
+        byte[] encoded = GameCodec.encode(new ChessGame());
+        encoded[5] = (byte) 0xFF;
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(encoded));
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(new byte[10]));
+        byte[] badState = GameCodec.encode(new ChessGame());
+        badState[33] = 9;
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(badState));
+
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.fromText("8/8/8 w ACTIVE"));
+        assertThrows(IllegalArgumentException.class,
+                () -> GameCodec.fromText("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w ACTVE"));
+        assertThrows(IllegalArgumentException.class,
+                () -> GameCodec.fromText("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w active"));
+    }
+}
@@ -0,0 +1,82 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerftTests {
+    private static final String MIDDLEGAME = "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+    private static final String ENDGAME = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+
+    // Reference counts only go as deep as the published trees stay free of castling and en passant
+    @ParameterizedTest
+    @CsvSource({
+            "'" + Fen.STARTING_POSITION + "', 1, 20",
+            "'" + Fen.STARTING_POSITION + "', 2, 400",
+            "'" + Fen.STARTING_POSITION + "', 3, 8902",
+            "'" + Fen.STARTING_POSITION + "', 4, 197281",
+            "'" + MIDDLEGAME + "', 1, 46",
+            "'" + MIDDLEGAME + "', 2, 2079",
+            "'" + MIDDLEGAME + "', 3, 89890",
+            "'" + ENDGAME + "', 1, 14",
+            "'" + ENDGAME + "', 2, 191",
+    })
+    public void referencePositions(String fen, int depth, long expectedNodes) {
+        ChessGame game = Fen.parse(fen);
+        Perft.Result result = Perft.run(game, depth);
+
+        assertEquals(expectedNodes, result.nodes());
+        assertEquals(Fen.parse(fen), game, "perft should leave the game as it found it");
+    }
+
+    @Test
+    public void divideSumsToPerft() {
+        ChessGame game = Fen.parse(MIDDLEGAME);
+        Map<ChessMove, Long> divide = Perft.divide(game, 2);
+
+        assertEquals(46, divide.size());
+        assertEquals(2079, divide.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"0", "4"})
+    public void parallelPerftMatchesSequential(int cacheMegabytes) {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            ChessGame game = Fen.parse(MIDDLEGAME);
+            assertEquals(89890, ParallelPerft.perft(game, 3, pool, cacheMegabytes));
+            assertEquals(197281, ParallelPerft.perft(new ChessGame(), 4, pool, cacheMegabytes));
+            assertEquals(Fen.parse(MIDDLEGAME), game);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void unmakeRestoresPromotionsAndCaptures() {
+        String fen = "r3k3/1P6/8/8/8/8/8/4K3 w - - 0 1";
+        ChessGame game = Fen.parse(fen);
+        int capturePromote = PackedMove.of(Bitboards.square(7, 2), Bitboards.square(8, 1), ChessPiece.PieceType.KNIGHT);
+
+        game.makeMove(capturePromote);
+        assertEquals(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT),
+                game.getBoard().getPiece(ChessPosition.of(8, 1)));
+        assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+
+        game.unmakeMove();
+        assertEquals(Fen.parse(fen), game);
+        assertEquals(Fen.parse(fen).positionKey(), game.positionKey());
+        assertThrows(IllegalStateException.class, game::unmakeMove);
+    }
+
+    @Test
+    public void fenRoundTrip() {
+        assertEquals(MIDDLEGAME.split(" ")[0], Fen.toFen(Fen.parse(MIDDLEGAME).getBoard()));
+        assertEquals(new ChessGame(), Fen.parse(Fen.STARTING_POSITION));
+    }
+}
@@ -0,0 +1,43 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionKeyTests {
+
+    @Test
+    public void transpositionsShareKey() throws InvalidMoveException {
+        ChessGame viaKnightFirst = new ChessGame();
+        viaKnightFirst.makeMove(move(1, 7, 3, 6));
+        viaKnightFirst.makeMove(move(8, 7, 6, 6));
+        viaKnightFirst.makeMove(move(2, 4, 4, 4));
+
+        ChessGame viaPawnFirst = new ChessGame();
+        viaPawnFirst.makeMove(move(2, 4, 4, 4));
+        viaPawnFirst.makeMove(move(8, 7, 6, 6));
+        viaPawnFirst.makeMove(move(1, 7, 3, 6));
+
+        assertEquals(viaPawnFirst.positionKey(), viaKnightFirst.positionKey());
+        assertEquals(Fen.parse(Fen.toFen(viaPawnFirst)).positionKey(), viaPawnFirst.positionKey(),
+                "incrementally maintained key should match a board built from scratch");
+    }
+
+    @Test
+    public void sideToMoveAndStateChangeKey() {
+        ChessGame game = new ChessGame();
+        long whiteToMove = game.positionKey();
+
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        assertNotEquals(whiteToMove, game.positionKey());
+        assertEquals(game.getBoard().positionKey(), new ChessGame().getBoard().positionKey());
+
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        game.setGameState(ChessGame.GameState.RESIGNED);
+        assertNotEquals(whiteToMove, game.positionKey());
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(ChessPosition.of(fromRow, fromCol), ChessPosition.of(toRow, toCol), null);
+    }
+}
@@ -0,0 +1,50 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValidMoveCacheTests {
+
+    @Test
+    public void validMoveMapIsCachedPerPosition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        var opening = game.allValidMoves();
+
+        assertSame(opening, game.allValidMoves());
+        assertEquals(10, opening.size());
+        assertEquals(20, opening.values().stream().mapToInt(Collection::size).sum());
+        assertThrows(UnsupportedOperationException.class, () -> opening.remove(ChessPosition.of(2, 5)));
+
+        game.makeMove(move(2, 5, 4, 5));
+        var reply = game.allValidMoves();
+        assertNotSame(opening, reply);
+        assertTrue(reply.containsKey(ChessPosition.of(7, 5)));
+        assertFalse(reply.containsKey(ChessPosition.of(2, 4)));
+
+        // Editing the board directly changes the key and so the moves too
+        game.getBoard().addPiece(ChessPosition.of(7, 5), null);
+        assertTrue(game.allValidMoves().get(ChessPosition.of(8, 4)).contains(move(8, 4, 4, 8)));
+    }
+
+    @Test
+    public void copiesShareCachedMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        var opening = game.allValidMoves();
+
+        ChessGame copy = new ChessGame(game);
+        assertSame(opening, copy.allValidMoves());
+        assertEquals(game.validMoves(ChessPosition.of(1, 2)), copy.validMoves(ChessPosition.of(1, 2)));
+
+        game.makeMove(move(2, 5, 4, 5));
+        assertNotSame(opening, game.allValidMoves());
+        assertSame(opening, copy.allValidMoves(), "moving in one game should not change its copy's moves");
+        assertEquals(ChessGame.Status.ACTIVE, copy.getStatus());
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(ChessPosition.of(fromRow, fromCol), ChessPosition.of(toRow, toCol), null);
+    }
+}
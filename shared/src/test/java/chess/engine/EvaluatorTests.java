@@ -0,0 +1,79 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Fen;
+import chess.MoveBuffer;
+import chess.PieceSquareTables;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvaluatorTests {
+
+    @Test
+    public void startingPositionIsBalanced() {
+        ChessGame game = new ChessGame();
+
+        assertEquals(0, new Evaluator().evaluate(game));
+        assertEquals(PieceSquareTables.MAX_PHASE, game.getBoard().getPhase());
+    }
+
+    @Test
+    public void incrementalScoresMatchRecount() {
+        // Random games through the promotion-heavy middlegame, checked after
+        // every make and unmake against a from-scratch sum and a FEN round trip
+        ChessGame game = Fen.parse("r3k2r/pPppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPpP/R3K2R w - - 0 1");
+        Random random = new Random(19);
+        MoveBuffer moves = new MoveBuffer();
+        for (int playout = 0; playout < 20; playout++) {
+            int plies = 0;
+            for (; plies < 40; plies++) {
+                moves.clear();
+                game.generateValidMoves(game.getTeamTurn(), moves);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+                assertMatchesRecount(game.getBoard());
+                assertMatchesRecount(Fen.parseBoard(Fen.toFen(game.getBoard())));
+            }
+            for (; plies > 0; plies--) {
+                game.unmakeMove();
+                assertMatchesRecount(game.getBoard());
+            }
+        }
+    }
+
+    @Test
+    public void endgameValuesTakeOverAsMaterialComesOff() {
+        // A passed pawn on the seventh is worth far more once the queens are gone
+        ChessGame endgame = Fen.parse("k7/4P3/8/8/8/8/8/4K3 w - - 0 1");
+        ChessGame middlegame = Fen.parse("kq6/4P3/8/8/8/8/8/Q3K3 w - - 0 1");
+
+        assertEquals(0, endgame.getBoard().getPhase());
+        assertEquals(endgame.getBoard().getEndgameScore(), new Evaluator().evaluate(endgame));
+        assertEquals(8, middlegame.getBoard().getPhase());
+        assertTrue(new Evaluator().evaluate(endgame) > new Evaluator().evaluate(middlegame));
+    }
+
+    private static void assertMatchesRecount(ChessBoard board) {
+        int middlegame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(square);
+            if (piece != null) {
+                middlegame += PieceSquareTables.middlegame(piece, square);
+                endgame += PieceSquareTables.endgame(piece, square);
+                phase += PieceSquareTables.phase(piece.getPieceType());
+            }
+        }
+        assertEquals(middlegame, board.getMiddlegameScore());
+        assertEquals(endgame, board.getEndgameScore());
+        assertEquals(phase, board.getPhase());
+    }
+}
@@ -0,0 +1,84 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.InvalidMoveException;
+import chess.MoveBuffer;
+import chess.PackedMove;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpeningBookTests {
+    @TempDir
+    Path directory;
+
+    private OpeningBook book;
+
+    @BeforeEach
+    public void writeBook() throws IOException, InvalidMoveException {
+        OpeningBookWriter writer = new OpeningBookWriter();
+        writer.addGame("e2e4 e7e5 g1f3 b8c6 f1c4", 16);
+        writer.addGame("e2e4 c7c5 g1f3 d7d6", 16);
+        writer.addGame("e2e4 e7e5 f1c4", 16);
+        writer.addGame("d2d4 d7d5", 1);
+        Path path = directory.resolve("test.book");
+        writer.write(path);
+        book = OpeningBook.open(path);
+    }
+
+    @Test
+    public void looksUpWeightedMoves() {
+        ChessGame start = new ChessGame();
+        assertEquals(PackedMove.parse("e2e4"), book.bestMove(start));
+
+        MoveBuffer moves = new MoveBuffer();
+        assertEquals(2, book.moves(start, moves));
+        assertEquals(PackedMove.parse("e2e4"), moves.get(0));
+        assertEquals(PackedMove.parse("d2d4"), moves.get(1));
+
+        Random random = new Random(7);
+        for (int i = 0; i < 20; i++) {
+            int move = book.pickMove(start, random);
+            assertTrue(move == PackedMove.parse("e2e4") || move == PackedMove.parse("d2d4"));
+        }
+    }
+
+    @Test
+    public void unknownPositionHasNoMoves() {
+        ChessGame game = new ChessGame();
+        game.makeMove(PackedMove.parse("a2a3"));
+
+        assertFalse(book.contains(game));
+        assertEquals(0, book.bestMove(game));
+        assertEquals(0, book.pickMove(game, new Random()));
+    }
+
+    @Test
+    public void searcherPlaysBookMoveFirst() {
+        ChessGame game = new ChessGame();
+        game.makeMove(PackedMove.parse("e2e4"));
+        game.makeMove(PackedMove.parse("e7e5"));
+        Searcher searcher = new Searcher(new Evaluator(), new TranspositionTable(1), book);
+
+        SearchResult result = searcher.search(game, SearchLimits.depth(3));
+
+        assertTrue(result.fromBook());
+        int move = PackedMove.of(result.bestMove());
+        assertTrue(move == PackedMove.parse("g1f3") || move == PackedMove.parse("f1c4"));
+        assertEquals(0, result.nodes());
+    }
+
+    @Test
+    public void rejectsOtherFiles() throws IOException {
+        Path notABook = Files.writeString(directory.resolve("notes.txt"), "not a book at all");
+
+        assertThrows(IOException.class, () -> OpeningBook.open(notABook));
+    }
+}
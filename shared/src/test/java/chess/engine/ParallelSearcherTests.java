@@ -0,0 +1,39 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelSearcherTests {
+
+    @Test
+    public void helpersAgreeOnForcedMate() {
+        ChessGame game = Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+
+        try (ParallelSearcher searcher = new ParallelSearcher(3)) {
+            SearchResult result = searcher.search(game, SearchLimits.depth(4));
+
+            assertEquals(new ChessMove(ChessPosition.of(1, 1), ChessPosition.of(8, 1), null), result.bestMove());
+            assertTrue(result.isMate());
+        }
+    }
+
+    @Test
+    public void countsNodesOfEveryThread() {
+        ChessGame game = new ChessGame();
+
+        try (ParallelSearcher searcher = new ParallelSearcher(2)) {
+            SearchResult result = searcher.search(game, SearchLimits.depth(5));
+
+            assertNotNull(result.bestMove());
+            assertTrue(result.depth() >= 5);
+            assertTrue(result.nodes() > 0);
+            assertEquals(new ChessGame(), game);
+            assertTrue(searcher.table().hits() > 0);
+        }
+    }
+}
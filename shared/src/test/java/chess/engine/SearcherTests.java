@@ -0,0 +1,88 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearcherTests {
+
+    @Test
+    public void findsMateInOne() {
+        // Back-rank mate: Ra1-a8
+        ChessGame game = Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+
+        SearchResult result = new Searcher().search(game, SearchLimits.depth(4));
+
+        assertEquals(new ChessMove(ChessPosition.of(1, 1), ChessPosition.of(8, 1), null), result.bestMove());
+        assertTrue(result.isMate());
+        assertEquals(1, result.mateInMoves());
+        assertEquals(1, result.principalVariation().size());
+    }
+
+    @Test
+    public void quiescenceSeesMateAtHorizon() {
+        ChessGame game = Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+
+        SearchResult result = new Searcher().search(game, SearchLimits.depth(1));
+
+        assertEquals(new ChessMove(ChessPosition.of(1, 1), ChessPosition.of(8, 1), null), result.bestMove());
+        assertTrue(result.isMate());
+    }
+
+    @Test
+    public void winsHangingQueen() {
+        ChessGame game = Fen.parse("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+
+        SearchResult result = new Searcher().search(game, SearchLimits.depth(3));
+
+        assertEquals(new ChessMove(ChessPosition.of(2, 4), ChessPosition.of(5, 4), null), result.bestMove());
+        assertTrue(result.score() > 0);
+    }
+
+    @Test
+    public void searchLeavesGameUntouched() {
+        ChessGame game = new ChessGame();
+        ChessGame before = new ChessGame(game);
+
+        SearchResult result = new Searcher().search(game, SearchLimits.depth(4));
+
+        assertEquals(before, game);
+        assertEquals(before.positionKey(), game.positionKey());
+        assertEquals(4, result.depth());
+        assertEquals(result.bestMove(), result.principalVariation().get(0));
+    }
+
+    @Test
+    public void nodeLimitStopsDeepening() {
+        SearchResult result = new Searcher().search(new ChessGame(), new SearchLimits(Searcher.MAX_PLY, 0, 5_000));
+
+        assertNotNull(result.bestMove());
+        assertTrue(result.depth() >= 1 && result.depth() < Searcher.MAX_PLY);
+    }
+
+    @Test
+    public void stopInterruptsFirstIteration() {
+        SearchResult result = new Searcher().search(new ChessGame(), SearchLimits.depth(Searcher.MAX_PLY), 1,
+                new AtomicBoolean(true));
+
+        assertEquals(0, result.depth());
+        assertNotNull(result.bestMove());
+        assertFalse(result.fromBook());
+    }
+
+    @Test
+    public void noMoveWhenCheckmated() {
+        ChessGame game = Fen.parse("R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1");
+
+        SearchResult result = new Searcher().search(game, SearchLimits.depth(3));
+
+        assertNull(result.bestMove());
+        assertEquals(-Searcher.MATE, result.score());
+    }
+}
@@ -0,0 +1,69 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.PackedMove;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTests {
+
+    @Test
+    public void storedEntryReadsBack() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = new ChessGame().positionKey();
+        int move = PackedMove.of(12, 28);
+
+        table.store(key, move, 7, TranspositionTable.LOWER_BOUND, -Searcher.MATE + 3);
+        long entry = table.probe(key);
+
+        assertEquals(move, TranspositionTable.move(entry));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+        assertEquals(-Searcher.MATE + 3, TranspositionTable.score(entry));
+        assertEquals(1, table.hits());
+    }
+
+    @Test
+    public void otherPositionInSlotIsACollision() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x1234_5678_9ABC_DEF0L;
+        // Same low bits, so the same slot, but a different position
+        long other = key ^ (1L << 62);
+
+        table.store(key, 0, 3, TranspositionTable.EXACT, 25);
+
+        assertEquals(0, table.probe(other));
+        assertEquals(1, table.collisions());
+        assertEquals(0, table.probe(key ^ 1));
+        assertEquals(25, TranspositionTable.score(table.probe(key)));
+    }
+
+    @Test
+    public void shallowerResultKeepsDeeperEntry() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = new ChessGame().positionKey();
+
+        table.store(key, PackedMove.of(12, 28), 6, TranspositionTable.LOWER_BOUND, 40);
+        table.store(key, 0, 2, TranspositionTable.UPPER_BOUND, -10);
+        assertEquals(6, TranspositionTable.depth(table.probe(key)));
+
+        table.store(key, 0, 8, TranspositionTable.UPPER_BOUND, -10);
+        long entry = table.probe(key);
+        assertEquals(8, TranspositionTable.depth(entry));
+        assertEquals(PackedMove.of(12, 28), TranspositionTable.move(entry), "best move should be kept");
+    }
+
+    @Test
+    public void sharedTableGivesSameAnswer() {
+        TranspositionTable table = new TranspositionTable(4);
+        Searcher searcher = new Searcher(new Evaluator(), table);
+
+        SearchResult cold = searcher.search(new ChessGame(), SearchLimits.depth(5));
+        SearchResult warm = searcher.search(new ChessGame(), SearchLimits.depth(5));
+
+        assertEquals(cold.score(), warm.score());
+        assertTrue(warm.nodes() < cold.nodes());
+        assertTrue(table.hits() > 0);
+    }
+}